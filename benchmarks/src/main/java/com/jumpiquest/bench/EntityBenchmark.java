@@ -0,0 +1,82 @@
+package com.jumpiquest.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jumpiquest.main.GameSettings;
+import com.jumpiquest.sim.CollisionSystem;
+import com.jumpiquest.sim.LevelModel;
+import com.jumpiquest.sim.MovementSystem;
+import com.jumpiquest.sim.PlayerModel;
+import com.jumpiquest.sim.Simulation;
+
+/**
+ * The entity loops of a step: animal movement (the old mobile-obstacle
+ * update), the player-vs-food/animal overlap tests (CollisionSystem, which
+ * replaced the food and mobile-obstacle loops of Engine.update), and a
+ * whole simulation step with the player running through the level.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EntityBenchmark {
+    private static final double STEP = 1.0 / 120.0;
+
+    @Param({ "FACILE", "MOYEN", "DIFFICILE" })
+    public GameSettings.Difficulty difficulty;
+
+    @Param({ "6000", "60000" })
+    public int width;
+
+    private final MovementSystem movement = new MovementSystem();
+    private final CollisionSystem collision = new CollisionSystem();
+    private Simulation sim;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        seed = LevelState.SEED;
+        sim = newSimulation();
+    }
+
+    private Simulation newSimulation() {
+        LevelModel level = new LevelModel(difficulty, width, seed++);
+        return new Simulation(level, new PlayerModel(level.spawnX, level.getGroundY() - PlayerModel.DEFAULT_HEIGHT));
+    }
+
+    @Benchmark
+    public Simulation movement() {
+        sim.getLevel().entities.savePreviousState();
+        movement.update(sim, STEP);
+        return sim;
+    }
+
+    @Benchmark
+    public Simulation collision() {
+        collision.update(sim, STEP);
+        return sim;
+    }
+
+    /** Simulation.step running right with a jump every second; a new level once the run ends. */
+    @Benchmark
+    public Simulation step() {
+        if (sim.isFinished()) sim = newSimulation();
+        int input = Simulation.INPUT_RIGHT | ((sim.getTicks() % 120) == 0 ? Simulation.INPUT_JUMP : 0);
+        sim.step(STEP, input);
+        return sim;
+    }
+}
@@ -0,0 +1,55 @@
+package com.jumpiquest.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.jumpiquest.sim.LevelModel;
+import com.jumpiquest.sim.PlayerModel;
+
+/**
+ * Level generation and the per-step level queries: hole test under the
+ * player and wall collision resolution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+
+    /** Generate the whole level (terrain, animals, food). */
+    @Benchmark
+    public LevelModel generateLevel(LevelState s) {
+        return new LevelModel(s.difficulty, s.width, LevelState.SEED);
+    }
+
+    /** LevelState.PROBES hole lookups spread over the level. */
+    @Benchmark
+    public void isHoleAt(LevelState s, Blackhole bh) {
+        LevelModel level = s.level;
+        for (double x : s.probeX) bh.consume(level.isHoleAt(x));
+    }
+
+    /** LevelState.PROBES wall collision passes for a player standing at each probe. */
+    @Benchmark
+    public void handleWallCollisions(LevelState s, Blackhole bh) {
+        LevelModel level = s.level;
+        PlayerModel p = new PlayerModel(0, level.getGroundY() - PlayerModel.DEFAULT_HEIGHT);
+        for (double x : s.probeX) {
+            p.x = x;
+            p.prevX = x - 2;
+            p.y = level.getGroundY() - p.h;
+            p.vx = 240;
+            level.handleWallCollisions(p);
+            bh.consume(p.x);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.jumpiquest.bench;
+
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.jumpiquest.main.GameSettings;
+import com.jumpiquest.sim.LevelModel;
+
+/**
+ * A generated level for each difficulty and width, plus a fixed set of
+ * probe X positions spread over it. Seeds are fixed so every run measures
+ * the same levels.
+ */
+@State(Scope.Thread)
+public class LevelState {
+    public static final long SEED = 1234;
+    public static final int PROBES = 1024;
+
+    @Param({ "FACILE", "MOYEN", "DIFFICILE" })
+    public GameSettings.Difficulty difficulty;
+
+    // the difficulties' own widths are 5000-8000; the larger ones stand in for long levels
+    @Param({ "6000", "60000" })
+    public int width;
+
+    public LevelModel level;
+    public double[] probeX;
+
+    @Setup
+    public void setUp() {
+        level = new LevelModel(difficulty, width, SEED);
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        probeX = new double[PROBES];
+        for (int i = 0; i < PROBES; i++) probeX[i] = rnd.nextDouble(0, width);
+    }
+}
@@ -0,0 +1,64 @@
+package com.jumpiquest.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jumpiquest.main.GameSettings;
+import com.jumpiquest.sim.LevelModel;
+import com.jumpiquest.sim.PlayerModel;
+
+/**
+ * One player physics update (input, gravity, ground and hole checks),
+ * running right and jumping every second across the level.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PlayerBenchmark {
+    private static final double STEP = 1.0 / 120.0;
+
+    @Param({ "FACILE", "MOYEN", "DIFFICILE" })
+    public GameSettings.Difficulty difficulty;
+
+    @Param({ "6000", "60000" })
+    public int width;
+
+    private LevelModel level;
+    private PlayerModel player;
+    private int step;
+
+    @Setup
+    public void setUp() {
+        level = new LevelModel(difficulty, width, LevelState.SEED);
+        player = new PlayerModel(level.spawnX, level.getGroundY() - PlayerModel.DEFAULT_HEIGHT);
+    }
+
+    @Benchmark
+    public double update() {
+        PlayerModel p = player;
+        // start over at the spawn point after the end or a fall
+        if (p.x > level.levelWidth - 200 || p.y > level.getGroundY() + 400) {
+            p.x = level.spawnX;
+            p.y = level.getGroundY() - p.h;
+            p.vx = 0;
+            p.vy = 0;
+        }
+        p.savePreviousState();
+        p.update(STEP, false, true, (++step % 120) == 0, level);
+        return p.x;
+    }
+}
@@ -0,0 +1,61 @@
+package com.jumpiquest.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jumpiquest.main.DatabaseManager;
+
+/**
+ * Score persistence: one SQLite insert (what ScoreManager's DB writer
+ * thread does per saved score) and the high score query. They do not depend on the level,
+ * so they have no difficulty or width parameters. Writes go to a temporary
+ * database file, deleted after the run, never to the game's jumpioquest.db.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ScoreBenchmark {
+    private Path file;
+    private DatabaseManager db;
+    private int score;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("jumpioquest-bench", ".db");
+        db = new DatabaseManager("jdbc:sqlite:" + file.toAbsolutePath());
+        db.initDatabase();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void saveScore() {
+        db.saveScore(++score % 1000);
+    }
+
+    @Benchmark
+    public int getHighScore() {
+        return db.getHighScore();
+    }
+}
@@ -0,0 +1,80 @@
+package com.jumpiquest.engine;
+
+import com.jumpiquest.sim.EntityStore;
+import com.jumpiquest.utils.Assets;
+import com.jumpiquest.utils.Sprite;
+import com.jumpiquest.utils.SpriteCache;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws animal entities as sheep, chicken and cow sprites, picked by each
+ * animal's variant. Movement and respawning are handled by the simulation.
+ */
+public class AnimalRenderer implements EntityRenderer {
+    // animal sprites, indexed by the animal's variant
+    private static final String[] ANIMAL_IMAGES = {
+        "MobileObstacles/sheep.gif",
+        "MobileObstacles/chicken.png",
+        "MobileObstacles/cow.gif"
+    };
+
+    // one sprite per variant (GIFs are not packed, so they keep animating)
+    private final Sprite[] images = new Sprite[ANIMAL_IMAGES.length];
+    // Visual render size (independent from collision hitbox)
+    private final double visualHeight = 120.0; // tweakable
+    // Vertical visual offset (pixels). Positive values move image down, negative move up.
+    // We want the animal to float 15px above the hitbox: use -15.
+    private final double visualOffsetY = -15.0;
+
+    // display size per variant: aspect-correct at visualHeight
+    private final double[] drawW = new double[ANIMAL_IMAGES.length];
+    private final double[] drawH = new double[ANIMAL_IMAGES.length];
+    // images resampled to drawW x drawH
+    private final Sprite[] drawImages = new Sprite[ANIMAL_IMAGES.length];
+    private int drawVersion = -1;
+
+    public AnimalRenderer() {
+        for (int v = 0; v < ANIMAL_IMAGES.length; v++) {
+            // shared image for each variant the level generator can pick
+            images[v] = Assets.sprite(ANIMAL_IMAGES[v]);
+            if (images[v] != null) {
+                // scale to maintain aspect ratio based on desired visualHeight
+                double scale = visualHeight / images[v].height;
+                drawW[v] = images[v].width * scale;
+                drawH[v] = images[v].height * scale;
+            }
+        }
+        prescale();
+    }
+
+    private void prescale() {
+        for (int v = 0; v < images.length; v++) {
+            drawImages[v] = SpriteCache.scaled(images[v], drawW[v], drawH[v]);
+        }
+        drawVersion = SpriteCache.version();
+    }
+
+    @Override
+    public void draw(GraphicsContext gc, EntityStore store, int i, double hitX, double hitY) {
+        int v = store.variant[i] % ANIMAL_IMAGES.length;
+        // Draw the visual image centered on the collision hitbox.
+        if (images[v] != null) {
+            if (drawVersion != SpriteCache.version()) prescale();
+            // center on hitbox (hitX,hitY is top-left of hitbox with width w and height h)
+            double centerX = hitX + store.w[i] / 2.0;
+            double centerY = hitY + store.h[i] / 2.0;
+            double drawX = centerX - drawW[v] / 2.0;
+            double drawY = centerY - drawH[v] / 2.0 + visualOffsetY;
+            drawImages[v].draw(gc, drawX, drawY, drawW[v], drawH[v]);
+        } else {
+            // fallback: draw collision rectangle in a distinctive color
+            gc.setFill(Color.PURPLE);
+            gc.fillRect(hitX, hitY, store.w[i], store.h[i]);
+            gc.setStroke(Color.DARKVIOLET);
+            gc.setLineWidth(2);
+            gc.strokeRect(hitX, hitY, store.w[i], store.h[i]);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.jumpiquest.engine;
+
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * A small glyph atlas: every character of a fixed charset is rendered once
+ * (with its drop shadow) into one image, and text is drawn as sub-rectangles
+ * of it. Drawing allocates nothing. Must be created on the FX thread.
+ */
+public class BitmapFont {
+    private final String charset;
+    private final WritableImage atlas;
+    private final double[] cellX;
+    private final double[] advance;
+    private final double cellH;
+    private final double baseline;
+    private final double shadow;
+
+    public BitmapFont(Font font, String charset, Color color, Color shadowColor, double shadow) {
+        this.charset = charset;
+        this.shadow = shadow;
+        int n = charset.length();
+        cellX = new double[n];
+        advance = new double[n];
+
+        // measure every glyph; bracketing with '|' keeps the width of spaces
+        Text probe = new Text("||");
+        probe.setFont(font);
+        double bracket = probe.getLayoutBounds().getWidth();
+        double x = 0;
+        double h = 0;
+        for (int i = 0; i < n; i++) {
+            probe.setText("|" + charset.charAt(i) + "|");
+            advance[i] = Math.ceil(probe.getLayoutBounds().getWidth() - bracket);
+            h = Math.max(h, probe.getLayoutBounds().getHeight());
+            cellX[i] = x;
+            x += advance[i] + shadow + 1;
+        }
+        probe.setText(charset);
+        baseline = Math.ceil(probe.getBaselineOffset());
+        cellH = Math.ceil(h) + shadow;
+
+        // render shadow then glyph into each cell
+        Canvas c = new Canvas(Math.max(1, x), Math.max(1, cellH));
+        GraphicsContext g = c.getGraphicsContext2D();
+        g.setFont(font);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.BASELINE);
+        for (int i = 0; i < n; i++) {
+            String ch = String.valueOf(charset.charAt(i));
+            g.setFill(shadowColor);
+            g.fillText(ch, cellX[i] + shadow, baseline + shadow);
+            g.setFill(color);
+            g.fillText(ch, cellX[i], baseline);
+        }
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        atlas = c.snapshot(params, null);
+    }
+
+    /** Index of c in the charset, or -1 if the font cannot draw it. */
+    public int glyph(char c) {
+        return charset.indexOf(c);
+    }
+
+    public double advance(int glyph) {
+        return glyph < 0 ? 0 : advance[glyph];
+    }
+
+    /**
+     * Draw one glyph with its baseline at y.
+     */
+    public void draw(GraphicsContext gc, int glyph, double x, double y) {
+        if (glyph < 0) return;
+        double w = advance[glyph] + shadow;
+        gc.drawImage(atlas, cellX[glyph], 0, w, cellH, x, y - baseline, w, cellH);
+    }
+}
@@ -1,16 +1,18 @@
 package com.jumpiquest.engine;
 
-import java.io.File;
+import com.jumpiquest.sim.HouseModel;
+import com.jumpiquest.utils.Assets;
 
-import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 
 /**
- * End-level house. Visual object that signals level end and provides collision bounds.
+ * End-level house. Visual object that signals level end; its collision bounds
+ * come from the simulation's {@link HouseModel}.
  */
 public class EndHouse {
+    public final HouseModel model;
     public double x;
     public double y;
     public final double width;
@@ -18,28 +20,19 @@ public class EndHouse {
     private Image image;
     private ImageView houseView;
 
-    public EndHouse(double x, double y, double width, double height) {
-        this.x = x;
-        // use provided y exactly (Level calculates ground-aligned y)
-        this.y = y;
-        this.width = width;
-        this.height = height;
+    public EndHouse(HouseModel model) {
+        this.model = model;
+        this.x = model.x;
+        // use model y exactly (LevelModel calculates ground-aligned y)
+        this.y = model.y;
+        this.width = model.width;
+        this.height = model.height;
         loadImage();
     }
 
     private void loadImage() {
-        try {
-            File f = new File("res/house.png");
-            if (f.exists()) {
-                image = new Image(f.toURI().toString());
-            } else {
-                // try resource stream fallback
-                image = new Image(getClass().getResourceAsStream("/house.png"));
-            }
-        } catch (Exception e) {
-            System.out.println("Could not load house image: " + e.getMessage());
-            image = null;
-        }
+        // shared, preloaded image (res/house.png with classpath fallback)
+        image = Assets.image("house.png");
         // create ImageView for scene-graph display if needed (not used by default)
         try {
             houseView = new ImageView(image);
@@ -53,10 +46,6 @@ public class EndHouse {
         }
     }
 
-    public Rectangle2D getBounds() {
-        return new Rectangle2D(x, y, width, height);
-    }
-
     public void render(GraphicsContext gc) {
         if (image != null) {
             gc.drawImage(image, x, y, width, height);
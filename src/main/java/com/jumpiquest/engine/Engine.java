@@ -1,21 +1,38 @@
 package com.jumpiquest.engine;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Set;
 
+import com.jumpiquest.main.GameSettings;
 import com.jumpiquest.main.ScoreManager;
+import com.jumpiquest.sim.GameTick;
+import com.jumpiquest.sim.InputLog;
+import com.jumpiquest.sim.InputLogWriter;
+import com.jumpiquest.sim.LatencyHistogram;
+import com.jumpiquest.sim.LevelCache;
+import com.jumpiquest.sim.LevelFile;
+import com.jumpiquest.sim.LevelModel;
+import com.jumpiquest.sim.PhaseProfiler;
+import com.jumpiquest.sim.Simulation;
+import com.jumpiquest.sim.SimulationListener;
+import com.jumpiquest.sim.SimulationThread;
+import com.jumpiquest.sim.Snapshot;
+import com.jumpiquest.trace.FrameEvent;
+import com.jumpiquest.utils.Assets;
 import com.jumpiquest.utils.SoundManager;
+import com.jumpiquest.utils.SpriteCache;
 
 import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
 import javafx.stage.Stage;
 
 public class Engine {
@@ -23,35 +40,92 @@ public class Engine {
     private final GraphicsContext gc;
     private final Player player;
     private final Level level;
+    private final Simulation simulation;
     private final HUD hud;
     private final ScoreManager scoreManager;
+    // Held keys (FX thread only) and their Simulation.INPUT_* bits
     private final Set<KeyCode> keys = new HashSet<>();
+    private int keyInput = 0;
+    // Every run is recorded to replays/ unless it is itself a replay
+    private static final Path REPLAY_DIR = Paths.get("replays");
+    private final InputLogWriter recorder;
     private AnimationTimer timer;
     private long lastNs = 0;
+    // Fixed-timestep simulation on its own thread: physics always advances in
+    // SIM_STEP increments and publishes a snapshot per step; the FX pulse
+    // renders the latest snapshot, interpolating from its previous state.
+    private static final double SIM_STEP = 1.0 / 120.0;
+    // Cap on catch-up steps per wake-up so a long hitch cannot snowball
+    private static final int MAX_STEPS_PER_FRAME = 8;
+    // Frame deltas above this (GC pause, window drag) are clamped
+    private static final double MAX_FRAME_TIME = 0.25;
+    private final SimulationThread simThread;
+    // The simulation thread's work: key events in (time-stamped on the FX
+    // thread), snapshots out, with the camera owned by the simulation thread
+    private final GameTick gameTick;
     private boolean gameOver = false;
     private boolean gameWon = false;
     private boolean isPaused = false;
-    private double cameraX = 0; // horizontal camera offset in world coords
-    // Last checkpoint X position (updated while player is on ground)
-    private double lastCheckpointX = 0;
-    private Image backgroundImage;
+    private ParallaxBackground background;
     private Stage stage; // reference to primary stage
     private Pane rootPane = null; // UI root to add ImageView hearts
     private HeartManager heartManager = null;
     private int lastLives = -1;
-    // House / entry state
-    private boolean blockInput = false;
-    private boolean enteringHouse = false;
-    private double enterTimer = 0.0;
-    private double playerAlpha = 1.0;
+    // Phase timing of the FX frame, shown with the tick and step phases and
+    // GC counts by the F3 profiler overlay
+    private static final int FRAME_GAP = 0, FRAME_VIEW = 1, FRAME_BACKGROUND = 2, FRAME_LEVEL = 3,
+            FRAME_ENTITIES = 4, FRAME_PLAYER = 5, FRAME_HUD = 6;
+    private final PhaseProfiler framePhases = new PhaseProfiler("gap", "view", "background", "level",
+            "entities", "player", "hud");
+    private final ProfilerOverlay profiler;
 
     public Engine(Canvas canvas, ScoreManager scoreManager, Stage stage) {
         this.canvas = canvas;
         this.gc = canvas.getGraphicsContext2D();
         this.player = new Player(100, 400);
-        // initialize checkpoint to player's starting X
-        this.lastCheckpointX = this.player.x;
-        this.level = new Level();
+        InputLog replay = GameSettings.getReplay();
+        this.level = replay != null ? new Level(replay.newLevel()) : new Level();
+        // input logs replay levels from their seed; level files that cannot be
+        // baked again from their seed are not recorded
+        LevelFile source = level.getModel().getSource();
+        this.recorder = replay != null || (source != null && !source.isReproducible())
+                ? null : newRecorder(level.getModel(), player);
+        // game rules run in the JavaFX-free simulation; this class renders it
+        this.simulation = new Simulation(level.getModel(), player.getModel());
+        this.gameTick = new GameTick(simulation, SIM_STEP, canvas.getWidth(), recorder,
+                replay != null ? replay.cursor() : null);
+        this.profiler = new ProfilerOverlay(new String[] { "tick", "  step", "frame" },
+                gameTick.getPhases(), simulation.getPhases(), framePhases);
+        // events arrive on the simulation thread; UI and sound go to the FX thread
+        this.simulation.setListener(new SimulationListener() {
+            @Override
+            public void onJump() {
+                Platform.runLater(SoundManager::playJump);
+            }
+
+            @Override
+            public void onFoodCollected(int points) {
+                Platform.runLater(() -> {
+                    scoreManager.addPoints(points);
+                    // play coin SFX
+                    SoundManager.playCoin();
+                });
+            }
+
+            @Override
+            public void onRespawn() {
+                // reposition camera to keep player visible
+                gameTick.recenter();
+            }
+
+            @Override
+            public void onGameEnd(boolean win) {
+                simThread.stop();
+                if (recorder != null) recorder.finish(simulation.getScore(), simulation.getOutcome());
+                Platform.runLater(() -> showEndScreen(win));
+            }
+        });
+        this.simThread = new SimulationThread("simulation", SIM_STEP, MAX_STEPS_PER_FRAME, gameTick);
         this.scoreManager = scoreManager;
         this.stage = stage;
         this.hud = new HUD(player, scoreManager);
@@ -82,27 +156,8 @@ public class Engine {
     private void setupGameUI() {
         if (rootPane == null) return;
 
-        // Ensure the canvas is present; root was created as new StackPane(canvas)
-        try {
-            // Add background image behind the canvas
-            java.io.File gameBg = new java.io.File("res/landscape.png");
-            if (!gameBg.exists()) gameBg = new java.io.File("res/landscape.jpg");
-            if (gameBg.exists()) {
-                javafx.scene.image.Image gimg = new javafx.scene.image.Image(gameBg.toURI().toString());
-                javafx.scene.image.ImageView gview = new javafx.scene.image.ImageView(gimg);
-                gview.setFitWidth(800);
-                gview.setFitHeight(600);
-                gview.setPreserveRatio(false);
-                // slightly darken the background so HUD/buttons contrast better
-                javafx.scene.effect.ColorAdjust adjust = new javafx.scene.effect.ColorAdjust();
-                adjust.setBrightness(-0.25);
-                adjust.setSaturation(-0.05);
-                gview.setEffect(adjust);
-                gview.setOpacity(0.88);
-                // place/ensure background at bottom
-                rootPane.getChildren().add(0, gview);
-            }
-        } catch (Exception ignore) {}
+        // The darkened landscape is baked into the canvas background
+        // (ParallaxBackground); no full-screen ImageView is stacked under it.
 
         // Pause overlay (initially hidden)
         javafx.scene.layout.StackPane pauseOverlay = new javafx.scene.layout.StackPane();
@@ -161,19 +216,19 @@ public class Engine {
     }
 
     private void loadBackgroundImage() {
-        try {
-            // Load background image from resources
-            backgroundImage = new Image(getClass().getResourceAsStream("/landscape.jpg"));
-        } catch (Exception e) {
-            // If image not found, leave backgroundImage null and render default color
-            System.out.println("Background image not found: " + e.getMessage());
-            backgroundImage = null;
-        }
+        // Baked once for this canvas size; a missing image renders the default color
+        background = new ParallaxBackground(Assets.image("landscape.jpg"), canvas.getWidth(), canvas.getHeight());
     }
 
     public void attachInput(Scene scene) {
-        scene.setOnKeyPressed(e -> keys.add(e.getCode()));
-        scene.setOnKeyReleased(e -> keys.remove(e.getCode()));
+        scene.setOnKeyPressed(e -> {
+            if (e.getCode() == KeyCode.F3) profiler.toggle();
+            // auto-repeat presses of a held key change nothing
+            if (keys.add(e.getCode())) keysChanged();
+        });
+        scene.setOnKeyReleased(e -> {
+            if (keys.remove(e.getCode())) keysChanged();
+        });
         
         // Handle mouse clicks for end screen buttons
         scene.setOnMouseClicked(e -> {
@@ -213,24 +268,58 @@ public class Engine {
     }
 
     public void start() {
+        // publish the initial state so the first frame has something to draw
+        gameTick.publish(0);
         timer = new AnimationTimer() {
             @Override
             public void handle(long now) {
                 if (lastNs == 0) lastNs = now;
-                double dt = (now - lastNs) / 1e9;
+                framePhases.record(FRAME_GAP, now - lastNs);
+                double frameTime = Math.min((now - lastNs) / 1e9, MAX_FRAME_TIME);
                 lastNs = now;
-                // If paused, skip update/render; keep timer stopped to save CPU
+                // If paused, skip render; keep timer stopped to save CPU
                 if (!isPaused) {
-                    update(dt);
-                    render();
+                    Snapshot s = gameTick.getSnapshots().latest();
+                    // fraction of a step elapsed since the snapshot was published
+                    double alpha = (System.nanoTime() - s.nanoTime) / (double) simThread.getStepNanos();
+                    FrameEvent event = new FrameEvent();
+                    event.begin();
+                    long t = framePhases.start();
+                    updateView(s, frameTime);
+                    t = framePhases.lap(FRAME_VIEW, t);
+                    render(s, Math.max(0.0, Math.min(1.0, alpha)), t);
+                    if (event.shouldCommit()) {
+                        event.tick = s.tick;
+                        event.drawn = level.getStats().getDrawn();
+                        event.culled = level.getStats().getCulled();
+                        event.commit();
+                    }
                 }
             }
         };
         timer.start();
+        simThread.start();
     }
 
     public void stop() {
         if (timer != null) timer.stop();
+        simThread.stop();
+        // a quit game keeps its recording, marked as still running
+        if (recorder != null) recorder.finish(simulation.getScore(), simulation.getOutcome());
+    }
+
+    private static InputLogWriter newRecorder(LevelModel level, Player player) {
+        String name = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))
+                + "-" + level.difficulty.name().toLowerCase() + ".jqr";
+        return new InputLogWriter(REPLAY_DIR.resolve(name), level.difficulty, level.isEndless(),
+                level.getSource() != null, level.getSeed(), player.getModel().w, player.getModel().h, (int) Math.round(1.0 / SIM_STEP));
+    }
+
+    /**
+     * Latency from key events to the simulation step that applied them.
+     */
+    public LatencyHistogram getInputLatency() {
+        return gameTick.getInputLatency();
     }
 
     public boolean isPaused() {
@@ -245,6 +334,7 @@ public class Engine {
         if (isPaused) return;
         isPaused = true;
         if (timer != null) timer.stop();
+        simThread.pause();
         // If there were other Timelines/Executors, pause/stop them here.
     }
 
@@ -256,216 +346,100 @@ public class Engine {
         isPaused = false;
         // reset lastNs so dt doesn't spike
         lastNs = 0;
+        simThread.resume();
         if (timer != null) timer.start();
         // resume other timelines/executors if present
     }
 
-    private void update(double dt) {
-        if (gameOver || gameWon) return;
-
-        boolean left = keys.contains(KeyCode.LEFT) || keys.contains(KeyCode.A);
-        boolean right = keys.contains(KeyCode.RIGHT) || keys.contains(KeyCode.D);
-        boolean jump = keys.contains(KeyCode.SPACE) || keys.contains(KeyCode.W) || keys.contains(KeyCode.UP);
-
-        // Detect an initiating jump (player was on ground and jump key pressed)
-        boolean willJump = jump && player.onGround;
-        player.update(dt, left, right, jump, level);
-        if (willJump) {
-            SoundManager.playJump();
-        }
-
-        // wall collisions handled by level
-        level.handleWallCollisions(player);
-
-        // update mobile obstacles and check collisions
-        for (MobileObstacle mob : level.mobileObstacles) {
-            mob.update(dt);
-            
-            // Check collision with player hitbox (not full sprite size)
-            if (mob.collidsWith(player.getHitboxLeft(), player.getHitboxTop(), 
-                                player.getHitboxWidth(), player.getHitboxHeight())) {
-                player.takeDamage();
-                if (player.getLives() <= 0) {
-                    // stop game and show end screen (loss)
-                    showEndScreen(false);
-                    return; // bail out of update
-                } else {
-                    // respawn the player at last checkpoint minus 100px (safety), clamp >= 0
-                    double respawnX = Math.max(0, lastCheckpointX - 100.0);
-                    player.x = respawnX;
-                    // place player on the ground at the respawn X
-                    player.y = level.getGroundY() - player.h;
-                    player.vx = 0;
-                    player.vy = 0;
-                    player.onGround = true;
-                    // reposition camera to keep player visible
-                    cameraX = Math.max(0, player.x - canvas.getWidth() / 3.0);
-                }
-                break; // only take damage once per frame
-            }
-        }
-
-        // Check food item collisions and remove collected items
-        Iterator<FoodItem> foodIterator = level.foodItems.iterator();
-        while (foodIterator.hasNext()) {
-            FoodItem food = foodIterator.next();
-                if (food.collidsWith(player.getHitboxLeft(), player.getHitboxTop(), 
-                                 player.getHitboxWidth(), player.getHitboxHeight())) {
-                scoreManager.addPoints(food.value);
-                foodIterator.remove();
-                // play coin SFX
-                SoundManager.playCoin();
-            }
-        }
-
-        // Check for entering the end-house (if present)
-        try {
-            if (level.house != null) {
-                javafx.geometry.Rectangle2D houseBounds = level.house.getBounds();
-                double phLeft = player.getHitboxLeft();
-                double phTop = player.getHitboxTop();
-                double phW = player.getHitboxWidth();
-                double phH = player.getHitboxHeight();
-
-                if (!enteringHouse && houseBounds.intersects(phLeft, phTop, phW, phH)) {
-                    // begin entering sequence
-                    enteringHouse = true;
-                    blockInput = true;
-                    enterTimer = 0.0;
-                    player.vx = 60; // gentle push into house
-                    player.vy = 0;
-                }
-
-                if (enteringHouse) {
-                    // gently advance player toward center of the house
-                    double targetHitboxLeft = level.house.x + level.house.width / 2.0 - phW / 2.0;
-                    double advanceSpeed = 90.0;
-                    double maxAdvance = advanceSpeed * dt;
-                    if (player.getHitboxLeft() < targetHitboxLeft) {
-                        player.x = Math.min(player.x + maxAdvance, targetHitboxLeft);
-                    }
-                    enterTimer += dt;
-                    playerAlpha = Math.max(0.0, 1.0 - enterTimer / 1.2);
-
-                    // when player sufficiently inside or timer expired, finish level
-                    if (player.getHitboxRight() >= level.house.x + level.house.width - 8 || enterTimer > 1.5) {
-                        showEndScreen(true);
-                        return;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // defensive: ignore house detection errors
-        }
-
-        // detect falling into hole: if player hitbox center goes below ground level while over a hole
-        double centerX = player.getHitboxLeft() + player.getHitboxWidth() / 2.0;
-        if (level.isHoleAt(centerX) && player.getHitboxBottom() > level.getGroundY()) {
-            // player fell into a hole
-            player.takeDamage();
-            if (player.getLives() <= 0) {
-                // show loss end screen
-                showEndScreen(false);
-                return;
-            } else {
-                // respawn the player at last checkpoint minus 100px (safety), clamp >= 0
-                double respawnX = Math.max(0, lastCheckpointX - 100.0);
-                player.x = respawnX;
-                player.y = level.getGroundY() - player.h;
-                player.vx = 0;
-                player.vy = 0;
-                player.onGround = true;
-                // reposition camera to keep player visible
-                cameraX = Math.max(0, player.x - canvas.getWidth() / 3.0);
-            }
-        }
+    /**
+     * Queue the new input bits if the held keys now map to different ones.
+     */
+    private void keysChanged() {
+        int bits = 0;
+        if (keys.contains(KeyCode.LEFT) || keys.contains(KeyCode.A)) bits |= Simulation.INPUT_LEFT;
+        if (keys.contains(KeyCode.RIGHT) || keys.contains(KeyCode.D)) bits |= Simulation.INPUT_RIGHT;
+        if (keys.contains(KeyCode.SPACE) || keys.contains(KeyCode.W) || keys.contains(KeyCode.UP)) bits |= Simulation.INPUT_JUMP;
+        if (bits == keyInput) return;
+        keyInput = bits;
+        // a full ring counts the drop; F3 shows the count
+        gameTick.getInputRing().offer(System.nanoTime(), bits);
+    }
 
-        // check for level completion: player reached the end (use hitbox and Level.endPosition)
-        try {
-            if (level.endPosition != null) {
-                double endX = level.endPosition.getX();
-                // allow a small offset (~10 px) so reaching slightly before counts
-                double offset = 10.0;
-                if (player.getHitboxRight() >= endX - offset) {
-                    // unified end screen for victory
-                    showEndScreen(true);
-                    return; // ensure update loop does not continue
-                }
-            }
-        } catch (Exception ex) {
-            System.out.println("Error checking level completion: " + ex.getMessage());
-            ex.printStackTrace();
-        }
+    /**
+     * Advance view-only state (sprite animation, hearts) by one frame.
+     */
+    private void updateView(Snapshot s, double frameTime) {
+        if (s.outcome != Simulation.Outcome.RUNNING) return;
+        player.updateAnimation(frameTime, s.playerOnGround,
+                (s.input & Simulation.INPUT_LEFT) != 0, (s.input & Simulation.INPUT_RIGHT) != 0);
 
         // If HeartManager exists, keep hearts in sync when lives change
-        if (heartManager != null) {
-            int curLives = player.getLives();
-            if (curLives != lastLives) {
-                heartManager.updateHearts();
-                lastLives = curLives;
-            }
-        }
-
-        // Save checkpoint while player is on a stable ground position.
-        // Only advance checkpoint when player moves forward to avoid regressing it.
-        try {
-            if (player.onGround && player.x > lastCheckpointX) {
-                lastCheckpointX = player.x;
-            }
-        } catch (Exception e) {
-            // defensive: ignore if player state inaccessible
+        if (heartManager != null && s.lives != lastLives) {
+            heartManager.updateHearts(s.lives);
+            lastLives = s.lives;
         }
     }
 
-    private void render() {
-        // Render background (sky/scenery) - not affected by camera
-        gc.setFill(Color.DARKSLATEGRAY);
-        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
-        
-        // Draw background image if loaded
-        if (backgroundImage != null) {
-            // Tile the background image across the canvas with parallax effect
-            double imageWidth = backgroundImage.getWidth();
-            double imageHeight = backgroundImage.getHeight();
-            double canvasHeight = canvas.getHeight();
-            double canvasWidth = canvas.getWidth();
-            
-            // Parallax: background moves slower than camera for depth effect
-            double parallaxCameraX = cameraX * 0.3; // 30% parallax speed
-            double startX = -(parallaxCameraX % imageWidth);
-            
-            // Fill the entire canvas height with background image tiles
-            for (double x = startX; x < canvasWidth; x += imageWidth) {
-                gc.drawImage(backgroundImage, x, 0, imageWidth, imageHeight);
-            }
+    /**
+     * Draw a simulation snapshot.
+     * @param alpha fraction (0..1) of a simulation step elapsed since the
+     *              snapshot, used to interpolate positions between steps
+     * @param t     framePhases start of this phase (0 when not profiling)
+     */
+    private void render(Snapshot s, double alpha, long t) {
+        double renderCameraX = s.prevCameraX + (s.cameraX - s.prevCameraX) * alpha;
+        // sprites are pre-resampled for this many device pixels per canvas pixel
+        if (canvas.getScene() != null && canvas.getScene().getWindow() != null) {
+            SpriteCache.setRenderScale(canvas.getScene().getWindow().getOutputScaleX());
         }
 
-        // update camera position to keep player visible
-        // keep player roughly centered on screen (at 1/3 from left)
-        double targetCameraX = Math.max(0, player.x - canvas.getWidth() / 3.0);
-        cameraX = targetCameraX;
+        // Render background (sky/scenery) - one blit with parallax, not affected by camera
+        background.render(gc, renderCameraX);
+        t = framePhases.lap(FRAME_BACKGROUND, t);
 
         // save graphics state and translate canvas for camera scrolling
         gc.save();
-        gc.translate(-cameraX, 0);
+        gc.translate(-renderCameraX, 0);
 
         // render level (ground, holes, walls)
-        level.render(gc);
+        level.render(gc, s, alpha, renderCameraX, renderCameraX + canvas.getWidth());
+        if (t != 0) {
+            // entity drawing is timed inside the level pass; report it on its own
+            long entities = level.getRenderSystem().getLastNanos();
+            long now = System.nanoTime();
+            framePhases.record(FRAME_LEVEL, now - t - entities);
+            framePhases.record(FRAME_ENTITIES, entities);
+            t = now;
+        }
 
         // render player (apply fade during entering sequence)
-        if (enteringHouse) {
-            gc.setGlobalAlpha(playerAlpha);
-            player.render(gc);
+        if (s.enteringHouse) {
+            gc.setGlobalAlpha(s.playerAlpha);
+            player.render(gc, s, alpha);
             gc.setGlobalAlpha(1.0);
         } else {
-            player.render(gc);
+            player.render(gc, s, alpha);
         }
 
         // restore graphics state (undo translation for HUD)
         gc.restore();
+        t = framePhases.lap(FRAME_PLAYER, t);
 
         // render HUD on top-left (always visible, not affected by camera)
-        hud.render(gc);
+        hud.render(gc, s.score);
+        framePhases.lap(FRAME_HUD, t);
+        if (profiler.isVisible()) {
+            RenderStats stats = level.getStats();
+            LevelCache cache = LevelCache.shared();
+            profiler.render(gc, canvas.getWidth() - 370, 10,
+                    "entities: " + s.entities.size() + "  draw: " + stats.getDrawn() + "  culled: " + stats.getCulled(),
+                    String.format("input p50: %.1f ms  p99: %.1f ms  dropped: %d",
+                            getInputLatency().getPercentile(50) / 1e6, getInputLatency().getPercentile(99) / 1e6,
+                            gameTick.getInputRing().getDropped()),
+                    String.format("level cache: %d/%d hits  hit p50: %.2f ms  miss p50: %.2f ms",
+                            cache.getHits(), cache.getHits() + cache.getMisses(),
+                            cache.getHitNanos().getPercentile(50) / 1e6, cache.getMissNanos().getPercentile(50) / 1e6));
+        }
         // The end house is rendered as part of the level (world coordinates) and
         // should not be re-positioned here. Do not add an ImageView that follows
         // the camera; the Level.render() draws the house at its world X so it
@@ -475,10 +449,10 @@ public class Engine {
     }
     
     private void showEndScreen(boolean win) {
-        // mark flags and stop the timer to halt game updates/physics
+        // mark flags and stop the timer and simulation thread
         gameWon = win;
         gameOver = !win;
-        if (timer != null) timer.stop();
+        stop();
 
         // play appropriate SFX and stop background music
         try {
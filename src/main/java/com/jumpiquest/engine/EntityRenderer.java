@@ -0,0 +1,16 @@
+package com.jumpiquest.engine;
+
+import com.jumpiquest.sim.EntityStore;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Draws one kind of entity (see {@link com.jumpiquest.sim.EntityKind}) for
+ * the {@link RenderSystem}.
+ */
+public interface EntityRenderer {
+    /**
+     * Draw entity i of the store with its hitbox top-left at (x, y).
+     */
+    void draw(GraphicsContext gc, EntityStore store, int i, double x, double y);
+}
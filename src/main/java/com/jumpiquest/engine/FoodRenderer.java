@@ -0,0 +1,71 @@
+package com.jumpiquest.engine;
+
+import com.jumpiquest.sim.EntityStore;
+import com.jumpiquest.sim.LevelModel;
+import com.jumpiquest.utils.Assets;
+import com.jumpiquest.utils.Sprite;
+import com.jumpiquest.utils.SpriteCache;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/**
+ * Draws food entities, picking the sprite by each item's variant.
+ */
+public class FoodRenderer implements EntityRenderer {
+    // food sprites, indexed by the item's variant
+    private static final String[] FOOD_IMAGES = {
+        "carrot.png",
+        "strawberry.png",
+        "mushroom.png",
+        "apple.png",
+        "salade.png",
+        "tomato.png",
+        "meat.png",
+        "banana.png",
+        "cheese.png"
+    };
+
+    private final Sprite[] foodImages = new Sprite[FOOD_IMAGES.length];
+    // foodImages resampled to the 64x64 item size
+    private final Sprite[] drawImages = new Sprite[FOOD_IMAGES.length];
+    private int drawVersion = -1;
+
+    public FoodRenderer() {
+        for (int v = 0; v < FOOD_IMAGES.length; v++) {
+            // shared atlas region for each sprite the level generator can pick
+            foodImages[v] = Assets.sprite("foodItem/" + FOOD_IMAGES[v]);
+        }
+        prescale();
+    }
+
+    private void prescale() {
+        for (int v = 0; v < foodImages.length; v++) {
+            drawImages[v] = SpriteCache.scaled(foodImages[v], LevelModel.FOOD_SIZE, LevelModel.FOOD_SIZE);
+        }
+        drawVersion = SpriteCache.version();
+    }
+
+    /**
+     * Render food item i as an image on the canvas.
+     * Falls back to a colored rectangle if image is not available.
+     */
+    @Override
+    public void draw(GraphicsContext gc, EntityStore store, int i, double x, double y) {
+        double w = store.w[i];
+        double h = store.h[i];
+        if (drawVersion != SpriteCache.version()) prescale();
+        Sprite drawImage = drawImages[store.variant[i] % FOOD_IMAGES.length];
+        if (drawImage != null) {
+            // Draw the food image at 64x64 (already resampled, 1:1 blit)
+            drawImage.draw(gc, x, y, w, h);
+        } else {
+            // Fallback: render as gold rectangle (64x64)
+            gc.setFill(Color.GOLD);
+            gc.fillRect(x, y, w, h);
+            gc.setStroke(Color.ORANGE);
+            gc.setLineWidth(2);
+            gc.strokeRect(x, y, w, h);
+        }
+    }
+}
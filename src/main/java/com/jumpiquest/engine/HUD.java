@@ -5,39 +5,116 @@ import com.jumpiquest.main.ScoreManager;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
-import javafx.scene.text.TextAlignment;
 
 public class HUD {
+    // Hearts are rendered as ImageViews at the top-left with padding 10 and
+    // size 64 (see HeartManager). Draw the score below the hearts so they
+    // do not overlap.
+    private static final double HEARTS_TOP_PADDING = 10.0; // matches HeartManager Insets(10)
+    private static final double HEART_SIZE = 64.0; // matches HeartManager image fit height
+    private static final double SCORE_X = 20.0; // left margin a bit inside the canvas
+    private static final double SCORE_Y = HEARTS_TOP_PADDING + HEART_SIZE + 14.0; // below hearts
+    private static final double BEST_Y = SCORE_Y + 28.0;
+    private static final String SCORE_LABEL = "Score: ";
+    private static final String BEST_LABEL = "Best: ";
+    // what TextLine draws after a label
+    private static final String NUMBER_CHARS = "-0123456789";
+
     private final Player player;
     private final ScoreManager scoreManager;
+    // glyph atlas with the slight shadow baked in, for readability over background
+    private final BitmapFont font;
+    private final TextLine scoreLine;
+    private final TextLine bestLine;
 
     public HUD(Player player, ScoreManager scoreManager) {
         this.player = player;
         this.scoreManager = scoreManager;
+        this.font = new BitmapFont(Font.font("Arial", 22), charset(SCORE_LABEL, BEST_LABEL, NUMBER_CHARS),
+                Color.WHITE, Color.rgb(0, 0, 0, 0.75), 2);
+        this.scoreLine = new TextLine(font, SCORE_LABEL);
+        this.bestLine = new TextLine(font, BEST_LABEL);
+    }
+
+    /**
+     * Every distinct character of texts, in first-seen order.
+     */
+    private static String charset(String... texts) {
+        StringBuilder chars = new StringBuilder();
+        for (String text : texts) {
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (chars.indexOf(String.valueOf(c)) < 0) chars.append(c);
+            }
+        }
+        return chars.toString();
     }
 
-    public void render(GraphicsContext gc) {
+    /**
+     * Draw the given current score (from a simulation snapshot) and the best score.
+     */
+    public void render(GraphicsContext gc, int score) {
         // Hearts are now managed by HeartManager (ImageView nodes). HUD only draws score.
-        
-        // Draw score text
-        // Slight shadow for readability over background.
-        // Hearts are rendered as ImageViews at the top-left with padding 10 and
-        // size 64 (see HeartManager). Draw the score below the hearts so they
-        // do not overlap.
-        gc.setTextAlign(TextAlignment.LEFT);
-        gc.setFont(Font.font("Arial", 22));
-        // Shadow / outline
-        gc.setFill(Color.rgb(0,0,0,0.75));
-        final double heartsTopPadding = 10.0; // matches HeartManager Insets(10)
-        final double heartSize = 64.0; // matches HeartManager image fit height
-        final double scoreX = 20.0; // left margin a bit inside the canvas
-        final double scoreY = heartsTopPadding + heartSize + 14.0; // below hearts
-        final double bestY = scoreY + 28.0;
-        gc.fillText("Score: " + scoreManager.getCurrentScore(), scoreX + 2, scoreY + 2);
-        gc.fillText("Best: " + scoreManager.getHighScore(), scoreX + 2, bestY + 2);
-        gc.setFill(Color.WHITE);
-        gc.fillText("Score: " + scoreManager.getCurrentScore(), scoreX, scoreY);
-        gc.fillText("Best: " + scoreManager.getHighScore(), scoreX, bestY);
+        // Glyph positions are only recomputed when a value changes.
+        scoreLine.set(score);
+        bestLine.set(scoreManager.getHighScore());
+        scoreLine.render(gc, SCORE_X, SCORE_Y);
+        bestLine.render(gc, SCORE_X, BEST_Y);
+    }
+
+    /**
+     * "label + number" laid out as glyph indices and offsets. set() redoes
+     * the layout only when the number changes; neither allocates.
+     */
+    private static final class TextLine {
+        private final BitmapFont font;
+        private final int labelLength;
+        // label + sign + 10 digits
+        private final int[] glyphs;
+        private final double[] offsets;
+        private final int[] digits = new int[10];
+        private int length;
+        private int value;
+        private boolean valid = false;
+
+        TextLine(BitmapFont font, String label) {
+            this.font = font;
+            this.labelLength = label.length();
+            this.glyphs = new int[labelLength + 11];
+            this.offsets = new double[glyphs.length];
+            for (int i = 0; i < labelLength; i++) {
+                glyphs[i] = font.glyph(label.charAt(i));
+            }
+        }
+
+        void set(int newValue) {
+            if (valid && newValue == value) return;
+            value = newValue;
+            valid = true;
+            length = labelLength;
+            if (newValue < 0) glyphs[length++] = font.glyph('-');
+            // digits least significant first, then copied in reading order
+            long v = Math.abs((long) newValue);
+            int n = 0;
+            do {
+                digits[n++] = (int) (v % 10);
+                v /= 10;
+            } while (v > 0);
+            while (n > 0) {
+                glyphs[length++] = font.glyph((char) ('0' + digits[--n]));
+            }
+            double x = 0;
+            for (int i = 0; i < length; i++) {
+                offsets[i] = x;
+                x += font.advance(glyphs[i]);
+            }
+        }
+
+        void render(GraphicsContext gc, double x, double baselineY) {
+            for (int i = 0; i < length; i++) {
+                font.draw(gc, glyphs[i], x + offsets[i], baselineY);
+            }
+        }
     }
 
     private void drawHeartFull(GraphicsContext gc, double x, double y, double size, Color color) {
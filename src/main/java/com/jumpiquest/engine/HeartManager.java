@@ -1,5 +1,7 @@
 package com.jumpiquest.engine;
 
+import com.jumpiquest.utils.Assets;
+
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.image.Image;
@@ -51,30 +53,9 @@ public class HeartManager {
     }
 
     private void loadImages() {
-        // Try loading from assets/img/ then res/ folder on disk
-        try {
-            java.io.File f1 = new java.io.File("assets/img/redheart.png");
-            if (f1.exists()) {
-                redHeart = new Image(f1.toURI().toString());
-            } else {
-                java.io.File f2 = new java.io.File("res/redheart.png");
-                if (f2.exists()) redHeart = new Image(f2.toURI().toString());
-            }
-        } catch (Exception e) {
-            System.out.println("Could not load redheart.png: " + e.getMessage());
-        }
-
-        try {
-            java.io.File f1 = new java.io.File("assets/img/emptyheart.png");
-            if (f1.exists()) {
-                emptyHeart = new Image(f1.toURI().toString());
-            } else {
-                java.io.File f2 = new java.io.File("res/emptyheart.png");
-                if (f2.exists()) emptyHeart = new Image(f2.toURI().toString());
-            }
-        } catch (Exception e) {
-            System.out.println("Could not load emptyheart.png: " + e.getMessage());
-        }
+        // Shared images from the asset registry (assets/img/ then res/)
+        redHeart = Assets.image("redheart.png");
+        emptyHeart = Assets.image("emptyheart.png");
         // If images are still null, generate simple heart images so hearts are visible
         if (redHeart == null || emptyHeart == null) {
             generateFallbackHearts();
@@ -136,7 +117,13 @@ public class HeartManager {
      * Update the heart images to reflect current player's lives.
      */
     public void updateHearts() {
-        int lives = player.getLives();
+        updateHearts(player.getLives());
+    }
+
+    /**
+     * Update the heart images to show the given number of lives.
+     */
+    public void updateHearts(int lives) {
         for (int i = 0; i < hearts.length; i++) {
             if (i < lives) {
                 if (redHeart != null) hearts[i].setImage(redHeart);
@@ -1,64 +1,87 @@
 package com.jumpiquest.engine;
 
-import java.io.File;
-import java.util.concurrent.ThreadLocalRandom;
+import com.jumpiquest.sim.ObstacleModel;
+import com.jumpiquest.utils.Assets;
+import com.jumpiquest.utils.Sprite;
+import com.jumpiquest.utils.SpriteCache;
 
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 
+/**
+ * Renders a platform, hole or wall from the simulation's {@link ObstacleModel}.
+ * The model's fields are copied: streamed levels and snapshots recycle
+ * model instances, which can happen before this view is dropped.
+ */
 public class Obstacle {
-    public enum Type { WALL, HOLE, PLATFORM }
+    // wall sprites, indexed by ObstacleModel.variant
+    private static final String[] WALL_SPRITES = { "tree.png", "rock.png", "wood.png" };
 
-    public final Type type;
-    public final double x;
-    public final double w;
-    // only for wall
-    public final double h;
+    public final ObstacleModel.Type type;
+    public final double x, w, h;
+    public final int variant;
     
     // sprite image for walls (tree.png, rock.png, or wood.png)
-    private Image spriteImage = null;
+    private Sprite spriteImage = null;
+    // spriteImage resampled to visualW x visualH
+    private Sprite drawImage = null;
+    private int drawVersion = -1;
     private String spriteName = null;
     // visual size for rendering the sprite (can be larger than hitbox)
     private double visualW = 90;
     private double visualH = 75;
 
-    public Obstacle(Type type, double x, double w, double h) {
-        this.type = type;
-        this.x = x;
-        this.w = w;
-        this.h = h;
-        
-        // if this is a wall, randomly select and load a sprite
-        if (type == Type.WALL) {
-            loadRandomSprite();
+    public Obstacle(ObstacleModel model) {
+        this.type = model.type;
+        this.x = model.x;
+        this.w = model.w;
+        this.h = model.h;
+        this.variant = model.variant;
+
+        // if this is a wall, load the sprite chosen by the level generator
+        if (type == ObstacleModel.Type.WALL) {
+            loadSprite();
         }
     }
     
-    private void loadRandomSprite() {
-        String[] sprites = { "tree.png", "rock.png", "wood.png" };
-        spriteName = sprites[ThreadLocalRandom.current().nextInt(sprites.length)];
-        
-        try {
-            File f = new File("res/levels/" + spriteName);
-            if (f.exists()) {
-                spriteImage = new Image(f.toURI().toString());
-            }
-        } catch (Exception e) {
-            System.out.println("Could not load sprite " + spriteName + ": " + e.getMessage());
-            spriteImage = null;
-        }
+    private void loadSprite() {
+        spriteName = WALL_SPRITES[variant % WALL_SPRITES.length];
+        // shared atlas region: no decoding per wall
+        spriteImage = Assets.sprite("levels/" + spriteName);
+        prescale();
+    }
+
+    private void prescale() {
+        drawImage = SpriteCache.scaled(spriteImage, visualW, visualH);
+        drawVersion = SpriteCache.version();
+    }
+
+    /**
+     * Left edge of what render() draws (wall sprites are wider than their hitbox).
+     */
+    public double getDrawMinX() {
+        if (type == ObstacleModel.Type.WALL) return Math.min(x, x + (w - visualW) / 2.0);
+        return x;
+    }
+
+    /**
+     * Right edge of what render() draws.
+     */
+    public double getDrawMaxX() {
+        if (type == ObstacleModel.Type.WALL) return Math.max(x + w, x + (w + visualW) / 2.0);
+        return x + w;
     }
 
     public void render(GraphicsContext gc, double groundY) {
-        if (type == Type.WALL) {
+        if (type == ObstacleModel.Type.WALL) {
             // Keep the hitbox exactly at (x, groundY - h) with size (w, h).
             // Draw the sprite larger visually, centered on the hitbox and
             // with its bottom aligned to the ground (so it appears to sit on it).
-            if (spriteImage != null) {
+            if (spriteImage != null && drawVersion != SpriteCache.version()) prescale();
+            if (drawImage != null) {
                 double drawX = x + (w - visualW) / 2.0; // center image over hitbox
                 double drawY = groundY - visualH; // align image bottom to ground
-                gc.drawImage(spriteImage, drawX, drawY, visualW, visualH);
+                drawImage.draw(gc, drawX, drawY, visualW, visualH);
             } else {
                 // If sprite missing, draw a visible fallback rectangle sized to the hitbox
                 // (this keeps collision behaviour unchanged). In normal operation the
@@ -66,11 +89,11 @@ public class Obstacle {
                 gc.setFill(Color.DIMGRAY);
                 gc.fillRect(x, groundY - h, w, h);
             }
-        } else if (type == Type.HOLE) {
+        } else if (type == ObstacleModel.Type.HOLE) {
             // draw hole as a black rectangle cut in the ground
             gc.setFill(Color.BLACK);
             gc.fillRect(x, groundY, w, 100);
-        } else if (type == Type.PLATFORM) {
+        } else if (type == ObstacleModel.Type.PLATFORM) {
             // draw a ground/platform segment
             gc.setFill(Color.DARKGREEN);
             // draw a thicker ground so it looks like the floor
@@ -0,0 +1,109 @@
+package com.jumpiquest.engine;
+
+import java.util.Arrays;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+/**
+ * Scrolling landscape behind the level. The darkening that used to be a
+ * ColorAdjust on a full-screen ImageView is baked once into an opaque strip
+ * holding the tile repeated across one tile plus one canvas width, so each
+ * frame is a single blit of a window into that strip.
+ */
+public class ParallaxBackground {
+    // background moves slower than camera for depth effect
+    private static final double PARALLAX = 0.3;
+    // same look as the old ColorAdjust(brightness -0.25, saturation -0.05) at 0.88 opacity
+    private static final double BRIGHTNESS = 0.75;
+    private static final double SATURATION = 0.95;
+    private static final double OPACITY = 0.88;
+    private static final Color BACKDROP = Color.DARKSLATEGRAY;
+
+    private final Image strip;
+    private final double tileWidth;
+    private final double viewWidth;
+    private final double viewHeight;
+
+    public ParallaxBackground(Image tile, double viewWidth, double viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.tileWidth = tile != null ? tile.getWidth() : 0;
+        this.strip = tile != null ? bake(tile, (int) viewWidth, (int) viewHeight) : null;
+    }
+
+    /**
+     * Build the opaque strip: tiles repeated left to right, darkened,
+     * composited over the backdrop color and cropped to the view height.
+     */
+    private static Image bake(Image tile, int viewW, int viewH) {
+        PixelReader reader = tile.getPixelReader();
+        int tw = (int) tile.getWidth();
+        int th = (int) tile.getHeight();
+        if (reader == null || tw <= 0 || th <= 0) return null;
+
+        int[] src = new int[tw * th];
+        reader.getPixels(0, 0, tw, th, PixelFormat.getIntArgbInstance(), src, 0, tw);
+        int backdrop = toArgb(BACKDROP);
+        int bgR = (backdrop >> 16) & 0xff, bgG = (backdrop >> 8) & 0xff, bgB = backdrop & 0xff;
+
+        int stripW = tw + viewW;
+        int[] out = new int[stripW * viewH];
+        int[] row = new int[tw];
+        for (int y = 0; y < viewH; y++) {
+            if (y < th) {
+                for (int x = 0; x < tw; x++) {
+                    row[x] = darken(src[y * tw + x], bgR, bgG, bgB);
+                }
+            } else {
+                // tile shorter than the view: backdrop shows below it
+                Arrays.fill(row, backdrop);
+            }
+            for (int x = 0; x < stripW; x += tw) {
+                System.arraycopy(row, 0, out, y * stripW + x, Math.min(tw, stripW - x));
+            }
+        }
+        WritableImage img = new WritableImage(stripW, viewH);
+        img.getPixelWriter().setPixels(0, 0, stripW, viewH, PixelFormat.getIntArgbInstance(), out, 0, stripW);
+        return img;
+    }
+
+    private static int darken(int argb, int bgR, int bgG, int bgB) {
+        int r = (argb >> 16) & 0xff, g = (argb >> 8) & 0xff, b = argb & 0xff;
+        double a = ((argb >>> 24) / 255.0) * OPACITY;
+        // HSB: scale saturation around the max channel, then scale brightness
+        int v = Math.max(r, Math.max(g, b));
+        double nr = (v - (v - r) * SATURATION) * BRIGHTNESS;
+        double ng = (v - (v - g) * SATURATION) * BRIGHTNESS;
+        double nb = (v - (v - b) * SATURATION) * BRIGHTNESS;
+        int or = (int) Math.round(nr * a + bgR * (1 - a));
+        int og = (int) Math.round(ng * a + bgG * (1 - a));
+        int ob = (int) Math.round(nb * a + bgB * (1 - a));
+        return 0xff000000 | or << 16 | og << 8 | ob;
+    }
+
+    private static int toArgb(Color c) {
+        return 0xff000000
+                | (int) Math.round(c.getRed() * 255) << 16
+                | (int) Math.round(c.getGreen() * 255) << 8
+                | (int) Math.round(c.getBlue() * 255);
+    }
+
+    /**
+     * Draw the background for the given camera position (screen space).
+     */
+    public void render(GraphicsContext gc, double cameraX) {
+        if (strip == null) {
+            gc.setFill(BACKDROP);
+            gc.fillRect(0, 0, viewWidth, viewHeight);
+            return;
+        }
+        // whole-pixel source offset keeps this a 1:1 copy
+        double offset = Math.floor((cameraX * PARALLAX) % tileWidth);
+        gc.drawImage(strip, offset, 0, viewWidth, viewHeight, 0, 0, viewWidth, viewHeight);
+    }
+}
@@ -1,103 +1,52 @@
 package com.jumpiquest.engine;
 
+import com.jumpiquest.sim.PlayerModel;
+import com.jumpiquest.sim.Snapshot;
+
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.paint.Color;
 
+/**
+ * Renders the player and drives its sprite animation. Physics, lives and the
+ * hitbox live in the simulation's {@link PlayerModel}.
+ */
 public class Player {
-    double x, y;
-    double vx, vy;
+    private final PlayerModel model;
     // Dimensions for rendering (visual sprite size)
-    double w, h;
-    // Hitbox dimensions (smaller than visual size, for collision detection)
-    private double hitboxWidth;
-    private double hitboxHeight;
-    // Hitbox scale factor: hitbox = sprite * scale
-    private static final double HITBOX_SCALE = 0.65;  // 65% of sprite size
-    final double speed = 240;
-    final double jumpSpeed = 600;
-    final double gravity = 1600;
-    boolean onGround = false;
-
-    // Lives / invincibility
-    private int lives = 3;
-    private static final int MAX_LIVES = 3;
-    private boolean invincible = false;
-    private double invincibilityTimer = 0.0; // seconds remaining
-    private double blinkTimer = 0.0; // toggles visibility
-    private boolean visible = true; // used for blinking while invincible
+    final double w, h;
     
     // Animation system
     private PlayerAnimation animation;
 
     public Player(double x, double y) {
-        this.x = x;
-        this.y = y;
         this.animation = new PlayerAnimation();
         // Set player visual dimensions from scaled animation
         this.w = animation.getScaledWidth();
         this.h = animation.getScaledHeight();
-        // Calculate reduced hitbox (65% of sprite size, centered on player)
-        this.hitboxWidth = w * HITBOX_SCALE;
-        this.hitboxHeight = h * HITBOX_SCALE;
+        this.model = new PlayerModel(x, y, w, h);
     }
 
-    public void update(double dt, boolean left, boolean right, boolean jump, Level level) {
-        double ax = 0;
-        if (left) ax = -speed;
-        if (right) ax = speed;
-        vx = ax;
-
-        x += vx * dt;
-
-        vy += gravity * dt;
-        y += vy * dt;
-
-        double groundY = level != null ? level.getGroundY() - h : 500 - h;
-        double centerX = x + w / 2.0;
-        boolean overHole = level != null && level.isHoleAt(centerX);
-
-        if (!overHole && y > groundY) {
-            y = groundY;
-            vy = 0;
-            onGround = true;
-        } else {
-            onGround = false;
-        }
+    public PlayerModel getModel() {
+        return model;
+    }
 
-        if (jump && onGround) {
-            vy = -jumpSpeed;
-            onGround = false;
-        }
+    public void update(double dt, boolean left, boolean right, boolean jump, Level level) {
+        model.update(dt, left, right, jump, level != null ? level.getModel() : null);
+        updateAnimation(dt, left, right);
+    }
 
-        // keep player within world bounds when a level is provided
-        if (x < 0) x = 0;
-        if (level != null) {
-            double maxX = Math.max(0, level.levelWidth - w);
-            if (x > maxX) x = maxX;
-        } else {
-            if (x > 800 - w) x = 800 - w;
-        }
+    /**
+     * Advance the sprite animation after a simulation step.
+     */
+    public void updateAnimation(double dt, boolean left, boolean right) {
+        updateAnimation(dt, model.onGround, left, right);
+    }
 
-        // update invincibility / blinking
-        if (invincible) {
-            invincibilityTimer -= dt;
-            blinkTimer += dt;
-            if (blinkTimer >= 0.1) {
-                visible = !visible;
-                blinkTimer = 0.0;
-            }
-            if (invincibilityTimer <= 0) {
-                invincible = false;
-                visible = true;
-                invincibilityTimer = 0.0;
-                blinkTimer = 0.0;
-            }
-        } else {
-            visible = true;
-        }
-        
+    /**
+     * Advance the sprite animation by a frame, from published player state.
+     */
+    public void updateAnimation(double dt, boolean onGround, boolean left, boolean right) {
         // Update animation based on player state
-        updateAnimation(left, right, jump);
+        updateAnimation(onGround, left, right);
         
         // Update animation frames
         animation.update(dt);
@@ -106,7 +55,7 @@ public class Player {
     /**
      * Update animation state based on player input and status.
      */
-    private void updateAnimation(boolean left, boolean right, boolean jump) {
+    private void updateAnimation(boolean onGround, boolean left, boolean right) {
         if (!onGround) {
             // Player is jumping/falling
             animation.setStateJump();
@@ -123,93 +72,76 @@ public class Player {
     }
 
     public void render(GraphicsContext gc) {
-        if (!visible) return;
+        render(gc, 1.0);
+    }
+
+    /**
+     * Render the player interpolated between the previous and current step.
+     * @param alpha 0 = previous step position, 1 = current position
+     */
+    public void render(GraphicsContext gc, double alpha) {
+        if (!model.isVisible()) return;
         
+        double drawX = model.prevX + (model.x - model.prevX) * alpha;
+        double drawY = model.prevY + (model.y - model.prevY) * alpha;
         // Draw sprite using animation system (scaled automatically)
-        animation.render(gc, x, y);
+        animation.render(gc, drawX, drawY);
+    }
+
+    /**
+     * Render the player from a simulation snapshot, interpolated between the
+     * snapshot's previous and current step.
+     */
+    public void render(GraphicsContext gc, Snapshot s, double alpha) {
+        if (!s.playerVisible) return;
+
+        double drawX = s.playerPrevX + (s.playerX - s.playerPrevX) * alpha;
+        double drawY = s.playerPrevY + (s.playerY - s.playerPrevY) * alpha;
+        animation.render(gc, drawX, drawY);
     }
 
-    // --- Life system methods ---
+    // --- Life system methods (delegate to the model) ---
     public int getLives() {
-        return lives;
+        return model.getLives();
     }
 
     public boolean isInvincible() {
-        return invincible;
+        return model.isInvincible();
     }
 
     public void resetLives() {
-        lives = MAX_LIVES;
-        invincible = false;
-        invincibilityTimer = 0.0;
-        visible = true;
+        model.resetLives();
     }
 
     public void addLife() {
-        if (lives < MAX_LIVES) lives++;
+        model.addLife();
     }
 
     public void takeDamage() {
-        if (invincible) return;
-        lives--;
-        // small recoil
-        vx = -150;
-        // start invincibility
-        invincible = true;
-        invincibilityTimer = 2.0;
-        blinkTimer = 0.0;
-        visible = false; // start with invisible to show blink
-        if (lives <= 0) {
-            die();
-        }
-    }
-
-    public void die() {
-        // Disable player movement / simple game over handling
-        vx = 0;
-        vy = 0;
-        // Engine can check getLives() == 0 for game over
+        model.takeDamage();
     }
     
-    /**
-     * Get the left edge of the hitbox (centered on player).
-     */
     public double getHitboxLeft() {
-        return x + (w - hitboxWidth) / 2.0;
+        return model.getHitboxLeft();
     }
     
-    /**
-     * Get the right edge of the hitbox (centered on player).
-     */
     public double getHitboxRight() {
-        return getHitboxLeft() + hitboxWidth;
+        return model.getHitboxRight();
     }
     
-    /**
-     * Get the top edge of the hitbox (centered on player).
-     */
     public double getHitboxTop() {
-        return y + (h - hitboxHeight) / 2.0;
+        return model.getHitboxTop();
     }
     
-    /**
-     * Get the bottom edge of the hitbox (centered on player).
-     */
     public double getHitboxBottom() {
-        return getHitboxTop() + hitboxHeight;
+        return model.getHitboxBottom();
     }
     
-    /**
-     * Get the hitbox width.
-     */
     public double getHitboxWidth() {
-        return hitboxWidth;
+        return model.getHitboxWidth();
     }
     
-    /**
-     * Get the hitbox height.
-     */
     public double getHitboxHeight() {
-        return hitboxHeight;
+        return model.getHitboxHeight();
     }
 }
@@ -1,18 +1,27 @@
 package com.jumpiquest.engine;
 
+import com.jumpiquest.utils.Assets;
+import com.jumpiquest.utils.Sprite;
+import com.jumpiquest.utils.SpriteCache;
+
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
-import java.io.File;
 
 /**
  * Manages player sprite animations and states.
  * Handles running left, running right, idle, and jumping animations.
  */
 public class PlayerAnimation {
-    private Image[] runRightSprites = new Image[2];    // sprite1, sprite2
-    private Image[] runLeftSprites = new Image[2];     // sprite5, sprite6
-    private Image idleSprite;                          // sprite3
-    private Image jumpSprite;                          // sprite4
+    // atlas regions (or standalone images when not packed)
+    private Sprite[] runRightSprites = new Sprite[2];  // sprite1, sprite2
+    private Sprite[] runLeftSprites = new Sprite[2];   // sprite5, sprite6
+    private Sprite idleSprite;                         // sprite3
+    private Sprite jumpSprite;                         // sprite4
+    // same frames resampled to the display size (see SpriteCache)
+    private Sprite[] drawRunRight = new Sprite[2];
+    private Sprite[] drawRunLeft = new Sprite[2];
+    private Sprite drawIdle;
+    private Sprite drawJump;
+    private int drawVersion = -1;
     
     // Scaled dimensions (calculated to maintain aspect ratio)
     private double scaledWidth;
@@ -31,13 +40,14 @@ public class PlayerAnimation {
     private double animationTimer = 0.0;
     private double frameDuration = 0.1; // 100ms per frame for smooth animation
     
-    private static final String[] SPRITE_PATHS = {
-        "res/sprite/sprite1.png",  // 0
-        "res/sprite/sprite2.png",  // 1
-        "res/sprite/sprite3.png",  // 2 - idle
-        "res/sprite/sprite4.png",  // 3 - jump
-        "res/sprite/sprite5.png",  // 4
-        "res/sprite/sprite6.png"   // 5
+    // Asset keys (relative to res/)
+    private static final String[] SPRITE_KEYS = {
+        "sprite/sprite1.png",  // 0
+        "sprite/sprite2.png",  // 1
+        "sprite/sprite3.png",  // 2 - idle
+        "sprite/sprite4.png",  // 3 - jump
+        "sprite/sprite5.png",  // 4
+        "sprite/sprite6.png"   // 5
     };
 
     public PlayerAnimation() {
@@ -45,68 +55,43 @@ public class PlayerAnimation {
     }
 
     /**
-     * Load all sprite images from res/sprite/ folder.
+     * Fetch all sprite images (res/sprite/) from the asset registry.
      * Calculate scaled dimensions based on original aspect ratio.
      */
     private void loadAllSprites() {
-        // Load run right sprites (sprite1, sprite2)
-        for (int i = 0; i < 2; i++) {
-            try {
-                File f = new File(SPRITE_PATHS[i]);
-                if (f.exists()) {
-                    runRightSprites[i] = new Image(f.toURI().toString());
-                    System.out.println("Loaded: " + SPRITE_PATHS[i]);
-                } else {
-                    System.out.println("Sprite not found: " + f.getAbsolutePath());
-                }
-            } catch (Exception e) {
-                System.out.println("Error loading " + SPRITE_PATHS[i] + ": " + e.getMessage());
-            }
-        }
-        
-        // Load idle sprite (sprite3)
-        try {
-            File f = new File(SPRITE_PATHS[2]);
-            if (f.exists()) {
-                idleSprite = new Image(f.toURI().toString());
-                System.out.println("Loaded: " + SPRITE_PATHS[2]);
-            } else {
-                System.out.println("Sprite not found: " + f.getAbsolutePath());
-            }
-        } catch (Exception e) {
-            System.out.println("Error loading " + SPRITE_PATHS[2] + ": " + e.getMessage());
-        }
-        
-        // Load jump sprite (sprite4)
-        try {
-            File f = new File(SPRITE_PATHS[3]);
-            if (f.exists()) {
-                jumpSprite = new Image(f.toURI().toString());
-                System.out.println("Loaded: " + SPRITE_PATHS[3]);
-            } else {
-                System.out.println("Sprite not found: " + f.getAbsolutePath());
-            }
-        } catch (Exception e) {
-            System.out.println("Error loading " + SPRITE_PATHS[3] + ": " + e.getMessage());
-        }
-        
-        // Load run left sprites (sprite5, sprite6)
-        for (int i = 0; i < 2; i++) {
-            try {
-                File f = new File(SPRITE_PATHS[4 + i]);
-                if (f.exists()) {
-                    runLeftSprites[i] = new Image(f.toURI().toString());
-                    System.out.println("Loaded: " + SPRITE_PATHS[4 + i]);
-                } else {
-                    System.out.println("Sprite not found: " + f.getAbsolutePath());
-                }
-            } catch (Exception e) {
-                System.out.println("Error loading " + SPRITE_PATHS[4 + i] + ": " + e.getMessage());
-            }
-        }
+        // Shared images from the asset registry: a new player decodes nothing
+        runRightSprites[0] = sprite(0);
+        runRightSprites[1] = sprite(1);
+        idleSprite = sprite(2);
+        jumpSprite = sprite(3);
+        runLeftSprites[0] = sprite(4);
+        runLeftSprites[1] = sprite(5);
         
         // Calculate scaled dimensions based on idle sprite aspect ratio
         calculateScaledDimensions();
+        prescale();
+    }
+
+    /**
+     * Fetch every frame resampled to scaledWidth x scaledHeight so render()
+     * blits them 1:1. Repeated when the render scale changes.
+     */
+    private void prescale() {
+        for (int i = 0; i < 2; i++) {
+            drawRunRight[i] = SpriteCache.scaled(runRightSprites[i], scaledWidth, scaledHeight);
+            drawRunLeft[i] = SpriteCache.scaled(runLeftSprites[i], scaledWidth, scaledHeight);
+        }
+        drawIdle = SpriteCache.scaled(idleSprite, scaledWidth, scaledHeight);
+        drawJump = SpriteCache.scaled(jumpSprite, scaledWidth, scaledHeight);
+        drawVersion = SpriteCache.version();
+    }
+
+    private static Sprite sprite(int index) {
+        Sprite img = Assets.sprite(SPRITE_KEYS[index]);
+        if (img == null) {
+            System.out.println("Sprite not found: " + SPRITE_KEYS[index]);
+        }
+        return img;
     }
     
     /**
@@ -120,13 +105,13 @@ public class PlayerAnimation {
         
         // Use sprite1 (runRightSprites[0]) as the reference for consistent sizing
         // This ensures idle, jump, and all animations have the same visual size
-        if (runRightSprites[0] != null && runRightSprites[0].getWidth() > 0) {
-            originalWidth = runRightSprites[0].getWidth();
-            originalHeight = runRightSprites[0].getHeight();
-        } else if (idleSprite != null && idleSprite.getWidth() > 0) {
+        if (runRightSprites[0] != null && runRightSprites[0].width > 0) {
+            originalWidth = runRightSprites[0].width;
+            originalHeight = runRightSprites[0].height;
+        } else if (idleSprite != null && idleSprite.width > 0) {
             // Fallback to idle if sprite1 not available
-            originalWidth = idleSprite.getWidth();
-            originalHeight = idleSprite.getHeight();
+            originalWidth = idleSprite.width;
+            originalHeight = idleSprite.height;
         }
         
         // Calculate aspect ratio and scale to target height
@@ -172,32 +157,33 @@ public class PlayerAnimation {
 
     /**
      * Render the current sprite on the canvas.
-     * Automatically scales to preserve aspect ratio.
+     * Frames are pre-resampled to the display size, so this is a plain blit.
      * @param gc GraphicsContext to draw on
      * @param x Player X position
      * @param y Player Y position
      */
     public void render(GraphicsContext gc, double x, double y) {
-        Image spriteToRender = getCurrentSprite();
+        if (drawVersion != SpriteCache.version()) prescale();
+        Sprite spriteToRender = getCurrentSprite();
         if (spriteToRender != null) {
-            gc.drawImage(spriteToRender, x, y, scaledWidth, scaledHeight);
+            spriteToRender.draw(gc, x, y, scaledWidth, scaledHeight);
         }
     }
 
     /**
      * Get the current sprite based on animation state and frame.
      */
-    private Image getCurrentSprite() {
+    private Sprite getCurrentSprite() {
         switch (currentState) {
             case RUN_RIGHT:
-                return runRightSprites[currentFrameIndex];
+                return drawRunRight[currentFrameIndex];
             case RUN_LEFT:
-                return runLeftSprites[currentFrameIndex];
+                return drawRunLeft[currentFrameIndex];
             case JUMP:
-                return jumpSprite;
+                return drawJump;
             case IDLE:
             default:
-                return idleSprite;
+                return drawIdle;
         }
     }
 
@@ -0,0 +1,112 @@
+package com.jumpiquest.engine;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import com.jumpiquest.sim.LatencyHistogram;
+import com.jumpiquest.sim.PhaseProfiler;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+
+/**
+ * Debug panel with p50 / p99 / max of every profiled phase, the garbage
+ * collections since it was opened, and caller-supplied counters (entities,
+ * draw calls...). The profilers only record while the panel is shown, and
+ * their histograms restart each time it opens.
+ */
+public class ProfilerOverlay {
+    private static final Font FONT = Font.font("Monospaced", 12);
+    private static final double LINE = 14.0;
+    // GC beans are polled at most this often
+    private static final long GC_SAMPLE_NANOS = 250_000_000L;
+
+    private final String[] titles;
+    private final PhaseProfiler[] profilers;
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final long[] gcCountAtOpen, gcMillisAtOpen, gcCount, gcMillis;
+    private long lastGcSample = 0;
+    private boolean visible = false;
+
+    /**
+     * @param titles one heading per profiler, e.g. "step", "frame"
+     */
+    public ProfilerOverlay(String[] titles, PhaseProfiler... profilers) {
+        this.titles = titles;
+        this.profilers = profilers;
+        int n = collectors.size();
+        gcCountAtOpen = new long[n];
+        gcMillisAtOpen = new long[n];
+        gcCount = new long[n];
+        gcMillis = new long[n];
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        for (PhaseProfiler p : profilers) {
+            p.reset();
+            p.setEnabled(visible);
+        }
+        if (visible) {
+            sampleGc();
+            System.arraycopy(gcCount, 0, gcCountAtOpen, 0, gcCount.length);
+            System.arraycopy(gcMillis, 0, gcMillisAtOpen, 0, gcMillis.length);
+        }
+    }
+
+    private void sampleGc() {
+        lastGcSample = System.nanoTime();
+        for (int i = 0; i < collectors.size(); i++) {
+            gcCount[i] = Math.max(0, collectors.get(i).getCollectionCount());
+            gcMillis[i] = Math.max(0, collectors.get(i).getCollectionTime());
+        }
+    }
+
+    /**
+     * Draw the panel with its top-left corner at (x, y), followed by the
+     * given counter lines.
+     */
+    public void render(GraphicsContext gc, double x, double y, String... counters) {
+        if (!visible) return;
+        if (System.nanoTime() - lastGcSample > GC_SAMPLE_NANOS) sampleGc();
+
+        int lines = 1 + collectors.size() + counters.length;
+        for (PhaseProfiler p : profilers) lines += 1 + p.getPhaseCount();
+        gc.save();
+        gc.setFill(Color.rgb(0, 0, 0, 0.6));
+        gc.fillRect(x, y, 360, lines * LINE + 8);
+        gc.setFont(FONT);
+        gc.setFill(Color.WHITE);
+
+        double ty = y + LINE;
+        for (int k = 0; k < profilers.length; k++) {
+            PhaseProfiler p = profilers[k];
+            gc.fillText(String.format("%-12s %8s %8s %8s  (ms)", titles[k], "p50", "p99", "max"), x + 6, ty);
+            ty += LINE;
+            for (int i = 0; i < p.getPhaseCount(); i++) {
+                LatencyHistogram h = p.getHistogram(i);
+                gc.fillText(String.format("  %-10s %8.3f %8.3f %8.3f", p.getName(i), h.getPercentile(50) / 1e6,
+                        h.getPercentile(99) / 1e6, h.getMax() / 1e6), x + 6, ty);
+                ty += LINE;
+            }
+        }
+        gc.fillText("gc since open", x + 6, ty);
+        ty += LINE;
+        for (int i = 0; i < collectors.size(); i++) {
+            gc.fillText(String.format("  %-22s %5d x %6d ms", collectors.get(i).getName(),
+                    gcCount[i] - gcCountAtOpen[i], gcMillis[i] - gcMillisAtOpen[i]), x + 6, ty);
+            ty += LINE;
+        }
+        for (String line : counters) {
+            gc.fillText(line, x + 6, ty);
+            ty += LINE;
+        }
+        gc.restore();
+    }
+}
@@ -0,0 +1,35 @@
+package com.jumpiquest.engine;
+
+/**
+ * Per-frame counters of entity draw calls issued and entities culled because
+ * they were outside the camera viewport. Reset at the start of every frame.
+ */
+public class RenderStats {
+    private int drawn = 0;
+    private int culled = 0;
+
+    public void beginFrame() {
+        drawn = 0;
+        culled = 0;
+    }
+
+    public void drawn() {
+        drawn++;
+    }
+
+    public void culled() {
+        culled++;
+    }
+
+    public void culled(int count) {
+        culled += count;
+    }
+
+    public int getDrawn() {
+        return drawn;
+    }
+
+    public int getCulled() {
+        return culled;
+    }
+}
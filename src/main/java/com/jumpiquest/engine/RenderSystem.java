@@ -0,0 +1,49 @@
+package com.jumpiquest.engine;
+
+import com.jumpiquest.sim.EntityKind;
+import com.jumpiquest.sim.EntityStore;
+
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * Draws every entity of an {@link EntityStore} that overlaps the view, at
+ * its position interpolated between simulation steps, with the renderer
+ * registered for its {@link EntityKind}. A new entity kind only needs a
+ * renderer here, not a new loop.
+ */
+public class RenderSystem {
+    private final EntityRenderer[] renderers = new EntityRenderer[EntityKind.values().length];
+    private long lastNanos = 0;
+
+    public RenderSystem() {
+        renderers[EntityKind.ANIMAL.ordinal()] = new AnimalRenderer();
+        renderers[EntityKind.FOOD.ordinal()] = new FoodRenderer();
+    }
+
+    /**
+     * Render entities overlapping [cullMin, cullMax] and count drawn/culled.
+     * @param alpha 0 = previous step position, 1 = current position
+     */
+    public void render(GraphicsContext gc, EntityStore e, double alpha, double cullMin, double cullMax, RenderStats stats) {
+        long start = System.nanoTime();
+        int n = e.size();
+        for (int i = 0; i < n; i++) {
+            if (e.x[i] + e.w[i] < cullMin || e.x[i] > cullMax) {
+                stats.culled();
+                continue;
+            }
+            double x = e.prevX[i] + (e.x[i] - e.prevX[i]) * alpha;
+            double y = e.prevY[i] + (e.y[i] - e.prevY[i]) * alpha;
+            renderers[e.kind[i]].draw(gc, e, i, x, y);
+            stats.drawn();
+        }
+        lastNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Time the last render() took, in nanoseconds.
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+}
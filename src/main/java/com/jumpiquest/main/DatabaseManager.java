@@ -9,10 +9,21 @@ import java.sql.Statement;
 
 /**
  * Simple SQLite helper for storing scores locally.
- * Uses JDBC URL: jdbc:sqlite:jumpioquest.db
+ * Uses JDBC URL: jdbc:sqlite:jumpioquest.db unless given another one.
  */
 public class DatabaseManager {
-    private static final String URL = "jdbc:sqlite:jumpioquest.db";
+    private static final String DEFAULT_URL = "jdbc:sqlite:jumpioquest.db";
+
+    private final String url;
+
+    public DatabaseManager() {
+        this(DEFAULT_URL);
+    }
+
+    /** Use the database at url instead (benchmarks point it at a temporary file). */
+    public DatabaseManager(String url) {
+        this.url = url;
+    }
 
     /** Create DB file and table if not exists. */
     public void initDatabase() {
@@ -21,7 +32,7 @@ public class DatabaseManager {
                 + "value INTEGER NOT NULL,"
                 + "date TEXT NOT NULL"
                 + ");";
-        try (Connection conn = DriverManager.getConnection(URL);
+        try (Connection conn = DriverManager.getConnection(url);
              Statement stmt = conn.createStatement()) {
             stmt.execute(sql);
         } catch (SQLException e) {
@@ -34,7 +45,7 @@ public class DatabaseManager {
      */
     public void saveScore(int score) {
         String insert = "INSERT INTO scores(value, date) VALUES(?, datetime('now'))";
-        try (Connection conn = DriverManager.getConnection(URL);
+        try (Connection conn = DriverManager.getConnection(url);
              PreparedStatement ps = conn.prepareStatement(insert)) {
             ps.setInt(1, score);
             ps.executeUpdate();
@@ -48,7 +59,7 @@ public class DatabaseManager {
      */
     public int getHighScore() {
         String query = "SELECT MAX(value) as maxv FROM scores";
-        try (Connection conn = DriverManager.getConnection(URL);
+        try (Connection conn = DriverManager.getConnection(url);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             if (rs.next()) {
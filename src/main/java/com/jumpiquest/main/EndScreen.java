@@ -1,6 +1,6 @@
 package com.jumpiquest.main;
 
-import java.io.File;
+import com.jumpiquest.utils.Assets;
 
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -28,9 +28,8 @@ public class EndScreen {
         StackPane root = new StackPane();
         ImageView backgroundImage = null;
         try {
-            File bgFile = new File("res/landscape.jpg");
-            if (bgFile.exists()) {
-                Image bgImg = new Image(bgFile.toURI().toString());
+            Image bgImg = Assets.image("landscape.jpg");
+            if (bgImg != null) {
                 backgroundImage = new ImageView(bgImg);
                 backgroundImage.setFitWidth(800);
                 backgroundImage.setFitHeight(600);
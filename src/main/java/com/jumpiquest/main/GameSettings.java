@@ -1,14 +1,56 @@
 package com.jumpiquest.main;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import com.jumpiquest.sim.InputLog;
+import com.jumpiquest.sim.LevelModel;
+
 public class GameSettings {
     public enum Difficulty { FACILE, MOYEN, DIFFICILE }
 
     private static Difficulty difficulty = Difficulty.FACILE;
     private static int highScore = 0;
+    // Endless run: level streamed in chunks with no end house
+    private static boolean endless = false;
+    // Level seed for new games; unset means a fresh random seed per game
+    private static Long seed = null;
+    // Seed of the next unseeded game, drawn ahead so its level can be preloaded
+    private static long nextSeed = LevelModel.newSeed();
+    // Recorded run to play back instead of keyboard input (null = play normally)
+    private static InputLog replay = null;
+    // Baked level file to play instead of a generated level (null = generate)
+    private static Path levelFile = null;
 
     public static void setDifficulty(Difficulty d) { difficulty = d; }
     public static Difficulty getDifficulty() { return difficulty; }
 
+    public static void setEndless(boolean e) { endless = e; }
+    public static boolean isEndless() { return endless; }
+
+    public static void setSeed(long s) { seed = s; }
+    public static void clearSeed() { seed = null; }
+    public static boolean hasSeed() { return seed != null; }
+    /** The seed of the next game: the configured one, or the next random one. */
+    public static long getSeed() { return seed != null ? seed : nextSeed; }
+    /** The seed for a game that starts now; draws the following random seed. */
+    public static long takeSeed() {
+        long s = getSeed();
+        if (seed == null) nextSeed = LevelModel.newSeed();
+        return s;
+    }
+    /** The shared daily-challenge seed of a date. */
+    public static long dailySeed(LocalDate date) {
+        // spread consecutive days over the seed space (golden ratio increment)
+        return date.toEpochDay() * 0x9E3779B97F4A7C15L;
+    }
+
+    public static void setReplay(InputLog log) { replay = log; }
+    public static InputLog getReplay() { return replay; }
+
+    public static void setLevelFile(Path file) { levelFile = file; }
+    public static Path getLevelFile() { return levelFile; }
+
     public static int getHighScore() { return highScore; }
     public static void setHighScore(int s) { highScore = s; }
 }
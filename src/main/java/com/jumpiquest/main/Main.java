@@ -1,5 +1,17 @@
 package com.jumpiquest.main;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.LocalDate;
+
+import com.jumpiquest.sim.InputLog;
+import com.jumpiquest.sim.LevelCache;
+import com.jumpiquest.utils.Assets;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
 import javafx.application.Application;
 import javafx.stage.Stage;
 
@@ -10,6 +22,57 @@ public class Main extends Application {
 
     @Override
     public void start(Stage stage) {
+        // --seed=N replays the same levels every game (daily challenges, bug reports)
+        String seed = getParameters().getNamed().get("seed");
+        if (seed != null) {
+            try {
+                GameSettings.setSeed(Long.parseLong(seed));
+            } catch (NumberFormatException e) {
+                System.out.println("Ignoring invalid seed: " + seed);
+            }
+        }
+        // --daily plays today's shared seed and caches tomorrow's levels ahead
+        if (getParameters().getUnnamed().contains("--daily")) {
+            LocalDate today = LocalDate.now();
+            GameSettings.setSeed(GameSettings.dailySeed(today));
+            for (GameSettings.Difficulty d : GameSettings.Difficulty.values()) {
+                LevelCache.shared().preload(d, GameSettings.dailySeed(today.plusDays(1)));
+            }
+        }
+        // --level=file.jql plays a baked level (see sim.LevelBaker)
+        String level = getParameters().getNamed().get("level");
+        if (level != null) GameSettings.setLevelFile(Paths.get(level));
+        // --replay=file.jqr plays a recorded run back at normal speed
+        String replay = getParameters().getNamed().get("replay");
+        if (replay != null) {
+            try {
+                GameSettings.setReplay(InputLog.read(Paths.get(replay)));
+            } catch (IOException e) {
+                System.out.println("Could not load replay " + replay + ": " + e.getMessage());
+            }
+        }
+
+        // --trace=file.jfr records a flight recording of the whole session,
+        // written on exit; convert it with trace.ChromeTrace
+        String trace = getParameters().getNamed().get("trace");
+        if (trace != null) {
+            try {
+                Recording recording = new Recording(Configuration.getConfiguration("profile"));
+                recording.setDestination(Paths.get(trace));
+                recording.setDumpOnExit(true);
+                recording.start();
+            } catch (IOException | ParseException e) {
+                System.out.println("Could not start recording " + trace + ": " + e.getMessage());
+            }
+        }
+
+        // Decode every image in parallel while the menu comes up; screens and
+        // levels then look up shared, already decoded images.
+        Assets.preloadAll().thenRun(() -> {
+            System.out.println("Assets preloaded:");
+            Assets.printReport();
+        });
+
         // Show main menu first. Create a ScoreManager and pass it to the menu.
         ScoreManager scoreManager = new ScoreManager();
         MainMenu.show(stage, scoreManager);
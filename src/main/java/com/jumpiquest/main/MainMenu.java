@@ -1,8 +1,8 @@
 package com.jumpiquest.main;
 
-import java.io.File;
-
 import com.jumpiquest.engine.Engine;
+import com.jumpiquest.sim.LevelCache;
+import com.jumpiquest.utils.Assets;
 import com.jumpiquest.utils.SoundManager;
 
 import javafx.geometry.Insets;
@@ -10,6 +10,7 @@ import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.ToggleGroup;
@@ -23,14 +24,28 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 
 public class MainMenu {
+    // Seed whose levels were last queued for preloading (null = none yet)
+    private static Long preloadedSeed = null;
+
     public static void show(Stage stage, ScoreManager scoreManager) {
+        // Generate the next game's level for every difficulty in the background
+        // while the menu is open, so PLAY NOW reads it from the level cache.
+        // Once per seed: coming back to the menu before playing needs nothing new.
+        long nextSeed = GameSettings.getSeed();
+        if (GameSettings.getLevelFile() == null && GameSettings.getReplay() == null
+                && (preloadedSeed == null || preloadedSeed != nextSeed)) {
+            preloadedSeed = nextSeed;
+            for (GameSettings.Difficulty d : GameSettings.Difficulty.values()) {
+                LevelCache.shared().preload(d, nextSeed);
+            }
+        }
+
         // Image de fond avec léger flou
         StackPane rootStack = new StackPane();
         ImageView backgroundImage = null;
         try {
-            File bgFile = new File("res/landscape.jpg");
-            if (bgFile.exists()) {
-                Image bgImg = new Image(bgFile.toURI().toString());
+            Image bgImg = Assets.image("landscape.jpg");
+            if (bgImg != null) {
                 backgroundImage = new ImageView(bgImg);
                 backgroundImage.setFitWidth(800);
                 backgroundImage.setFitHeight(600);
@@ -83,7 +98,17 @@ public class MainMenu {
         HBox difficultyBox = new HBox(20, rbEasy, rbMedium, rbHard);
         difficultyBox.setAlignment(Pos.CENTER);
 
-        VBox difficultyPanel = new VBox(15, difficultyLabel, difficultyBox);
+        // Endless run: no end house, the level keeps streaming and gets harder
+        CheckBox endlessBox = new CheckBox(" Endless run");
+        endlessBox.setSelected(GameSettings.isEndless());
+        endlessBox.setFont(Font.font("Arial", 20));
+        endlessBox.setStyle(
+            "-fx-text-fill: #333333;" +
+            "-fx-font-weight: bold;" +
+            "-fx-cursor: hand;"
+        );
+
+        VBox difficultyPanel = new VBox(15, difficultyLabel, difficultyBox, endlessBox);
         difficultyPanel.setAlignment(Pos.CENTER);
         difficultyPanel.setPadding(new Insets(30, 50, 30, 50));
         difficultyPanel.setStyle(
@@ -115,6 +140,7 @@ public class MainMenu {
             } else {
                 GameSettings.setDifficulty(GameSettings.Difficulty.FACILE);
             }
+            GameSettings.setEndless(endlessBox.isSelected());
 
             scoreManager.resetCurrentScore();
             
@@ -125,7 +151,8 @@ public class MainMenu {
             engine.attachInput(gameScene);
 
             stage.setScene(gameScene);
-            stage.setTitle("Jumpio Quest - " + GameSettings.getDifficulty().name());
+            stage.setTitle("Jumpio Quest - " + GameSettings.getDifficulty().name()
+                    + (GameSettings.isEndless() ? " (Endless)" : ""));
             stage.show();
 
             // Start background music for the gameplay (single instance, looped)
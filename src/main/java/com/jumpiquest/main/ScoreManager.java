@@ -8,6 +8,8 @@ import java.io.IOException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
+import com.jumpiquest.trace.ScoreWriteEvent;
+
 public class ScoreManager {
     private int currentScore = 0;
     private int highScore = 0;
@@ -106,7 +108,7 @@ public class ScoreManager {
         }
         // also persist to DB asynchronously
         final int toSave = highScore;
-        dbWriter.submit(() -> db.saveScore(toSave));
+        dbWriter.submit(() -> writeScore(toSave));
     }
 
     /**
@@ -127,7 +129,16 @@ public class ScoreManager {
      */
     public void saveCurrentScoreAsync() {
         final int toSave = currentScore;
-        dbWriter.submit(() -> db.saveScore(toSave));
+        dbWriter.submit(() -> writeScore(toSave));
+    }
+
+    // DB writer thread
+    private void writeScore(int score) {
+        ScoreWriteEvent event = new ScoreWriteEvent();
+        event.begin();
+        db.saveScore(score);
+        event.score = score;
+        event.commit();
     }
 
     /**
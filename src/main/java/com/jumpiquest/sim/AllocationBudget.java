@@ -0,0 +1,135 @@
+package com.jumpiquest.sim;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Allocation check for the game loop: counts the bytes the calling thread
+ * allocates (com.sun.management.ThreadMXBean) in every {@link GameTick},
+ * the simulation-thread half of Engine without JavaFX: input ring, input
+ * recorder, simulation step and snapshot publish. Fails if the average per
+ * tick over the measured ticks is over budget.
+ *
+ * Every difficulty is played as endless levels by the {@link AutoPilot},
+ * fresh games with new seeds back to back until the tick count is reached,
+ * so the run covers movement, collisions, pickups, deaths, respawns and
+ * chunks being generated and dropped as they happen in the game. Warmup
+ * games over all difficulties come first, so the loop is measured
+ * JIT-compiled; every measured tick counts, from each game's first.
+ *
+ * A game reserves its obstacle pool, entity columns and snapshot copies for
+ * the widest window its level can stream when it starts, so a tick should
+ * allocate nothing. The budget leaves room for the odd JIT deoptimization
+ * allocating a few KB once in the measured thread; one object per tick, or
+ * a few hundred bytes per chunk, is over it.
+ *
+ * Runs in the test phase of the build. Usage:
+ *   AllocationBudget [ticks] [bytesPerTick] [warmupRounds]
+ */
+public final class AllocationBudget {
+    private static final double DEFAULT_BUDGET = 1.0;
+    private static final double VIEW_WIDTH = 800;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Path replays;
+    private long seed = 1;
+    // totals of the difficulty being measured
+    private long bytes, max, firstTick;
+
+    private AllocationBudget(Path replays) {
+        this.replays = replays;
+        threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        double budget = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_BUDGET;
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        Path dir = Files.createTempDirectory("allocation-budget");
+        try {
+            new AllocationBudget(dir).run(ticks, budget, warmup);
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private void run(int ticks, double budget, int warmup) {
+        for (int r = 0; r < warmup; r++) {
+            for (GameSettings.Difficulty difficulty : GameSettings.Difficulty.values()) {
+                play(difficulty, Long.MAX_VALUE, false);
+            }
+        }
+
+        boolean over = false;
+        System.out.printf("%-9s %6s %8s %10s %8s %10s %18s%n", "", "games", "ticks", "bytes", "B/tick", "max B",
+                "first alloc");
+        for (GameSettings.Difficulty difficulty : GameSettings.Difficulty.values()) {
+            bytes = 0;
+            max = 0;
+            firstTick = -1;
+            long firstSeed = 0;
+            int games = 0;
+            for (long left = ticks; left > 0; games++) {
+                long gameSeed = seed;
+                left -= play(difficulty, left, true);
+                if (firstTick >= 0 && firstSeed == 0) firstSeed = gameSeed;
+            }
+            double perTick = (double) bytes / ticks;
+            over |= perTick > budget;
+            System.out.printf("%-9s %6d %8d %10d %8.2f %10d %18s%n", difficulty, games, ticks, bytes, perTick, max,
+                    firstTick < 0 ? "-" : "seed " + firstSeed + " tick " + firstTick);
+        }
+        if (over) {
+            throw new IllegalStateException("game loop allocates more than " + budget + " bytes per tick");
+        }
+        System.out.println("within budget of " + budget + " bytes per tick");
+    }
+
+    /**
+     * Play one endless game with the next seed, as the Engine's simulation
+     * thread would: input changes through the ring, recorded, a snapshot
+     * taken by the renderer before every tick. Stops after maxTicks.
+     * @return ticks played
+     */
+    private long play(GameSettings.Difficulty difficulty, long maxTicks, boolean measure) {
+        long gameSeed = seed++;
+        LevelModel level = LevelModel.endless(difficulty, gameSeed);
+        PlayerModel player = new PlayerModel(100, 400);
+        Simulation sim = new Simulation(level, player);
+        InputLogWriter recorder = new InputLogWriter(replays.resolve(gameSeed + ".jqr"), difficulty, true, false,
+                gameSeed, player.w, player.h, (int) Math.round(1 / HeadlessRunner.STEP));
+        GameTick tick = new GameTick(sim, HeadlessRunner.STEP, VIEW_WIDTH, recorder, null);
+        tick.publish(0);
+        long played = 0;
+        int held = 0;
+        while (!sim.isFinished() && played < maxTicks) {
+            int bits = AutoPilot.decide(sim);
+            if (bits != held) {
+                tick.getInputRing().offer(System.nanoTime(), bits);
+                held = bits;
+            }
+            tick.getSnapshots().latest();
+            long now = System.nanoTime();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            tick.tick(now);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            played++;
+            if (measure && allocated > 0) {
+                bytes += allocated;
+                max = Math.max(max, allocated);
+                if (firstTick < 0) firstTick = sim.getTicks();
+            }
+        }
+        recorder.finish(sim.getScore(), sim.getOutcome()).join();
+        return played;
+    }
+}
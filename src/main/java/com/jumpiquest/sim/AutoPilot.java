@@ -0,0 +1,57 @@
+package com.jumpiquest.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simple scripted input for headless runs: always run right and jump when a
+ * hole, wall or hazard (animal) is just ahead of the player.
+ */
+public final class AutoPilot {
+    // Take-off windows: jump when the gap to the hazard is within [0, N] px
+    private static final double HOLE_TAKEOFF = 12.0;
+    private static final double WALL_TAKEOFF = 25.0;
+    private static final double ANIMAL_TAKEOFF = 60.0;
+
+    // per-thread scratch lists so the pilot can drive parallel headless runs
+    private static final ThreadLocal<List<ObstacleModel>> OBSTACLES = ThreadLocal.withInitial(ArrayList::new);
+    private static final ThreadLocal<IntList> HAZARDS = ThreadLocal.withInitial(IntList::new);
+
+    private AutoPilot() { }
+
+    /**
+     * Choose the input bits for the next step of the given simulation.
+     */
+    public static int decide(Simulation sim) {
+        PlayerModel p = sim.getPlayer();
+        LevelModel level = sim.getLevel();
+        // holes are tested against the sprite center, walls/animals against the hitbox
+        double center = p.x + p.w / 2.0;
+        double front = p.getHitboxRight();
+        boolean jump = false;
+
+        List<ObstacleModel> obstacles = OBSTACLES.get();
+        obstacles.clear();
+        level.queryHoles(center, center + HOLE_TAKEOFF, obstacles);
+        for (int i = 0; i < obstacles.size() && !jump; i++) {
+            jump = inWindow(obstacles.get(i).x - center, HOLE_TAKEOFF);
+        }
+        obstacles.clear();
+        level.queryWalls(front, front + WALL_TAKEOFF + 60, obstacles);
+        for (int i = 0; i < obstacles.size() && !jump; i++) {
+            ObstacleModel o = obstacles.get(i);
+            jump = inWindow(o.x + o.w * 0.20 - front, WALL_TAKEOFF);
+        }
+        IntList hazards = HAZARDS.get();
+        hazards.clear();
+        level.queryHazards(front, front + ANIMAL_TAKEOFF, hazards);
+        for (int i = 0; i < hazards.size() && !jump; i++) {
+            jump = inWindow(level.entities.x[hazards.get(i)] - front, ANIMAL_TAKEOFF);
+        }
+        return Simulation.INPUT_RIGHT | (jump ? Simulation.INPUT_JUMP : 0);
+    }
+
+    private static boolean inWindow(double gap, double window) {
+        return gap >= 0 && gap <= window;
+    }
+}
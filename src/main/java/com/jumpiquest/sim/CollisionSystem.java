@@ -0,0 +1,42 @@
+package com.jumpiquest.sim;
+
+/**
+ * Finds every entity overlapping the player hitbox and leaves them in the
+ * simulation's contact list, in index order, for the damage and pickup
+ * systems. Only the entities in the X buckets around the player are tested
+ * (see {@link XBuckets}), so the cost does not grow with the level.
+ *
+ * When a step moves the player or an entity further than half the thinner
+ * hitbox (low tick rates), the end positions alone can miss an animal
+ * the player ran through, so the step is swept instead (see {@link Sweep}).
+ */
+public final class CollisionSystem implements GameSystem {
+    @Override
+    public String name() {
+        return "collision";
+    }
+
+    @Override
+    public void update(Simulation sim, double dt) {
+        PlayerModel p = sim.getPlayer();
+        EntityStore e = sim.getLevel().entities;
+        IntList contacts = sim.getContacts();
+        contacts.clear();
+        // landing, wall push-outs and world bounds are not travel: sweep at most what was run
+        double runX = Math.abs(p.getRunX());
+        double runY = Math.abs(p.getRunY());
+        double stepX = Math.max(-runX, Math.min(runX, p.x - p.prevX));
+        double stepY = Math.max(-runY, Math.min(runY, p.y - p.prevY));
+        // entities only move horizontally
+        double reach = e.getMaxSpeed() * dt;
+        boolean fast = Sweep.isFast(Math.abs(stepX) + reach, p.getHitboxWidth(), e.getMinExtent())
+                || Sweep.isFast(stepY, p.getHitboxHeight(), e.getMinExtent());
+        if (fast) {
+            e.sweeping(p.getHitboxLeft(), p.getHitboxTop(), p.getHitboxWidth(), p.getHitboxHeight(),
+                    stepX, stepY, reach, contacts);
+        } else {
+            e.overlapping(p.getHitboxLeft(), p.getHitboxTop(),
+                    p.getHitboxWidth(), p.getHitboxHeight(), contacts);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.jumpiquest.sim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Stress scene for the entity systems: a level crowded with moving animals,
+ * timing the per-step entity work of the simulation (previous-state copy,
+ * then the movement, collision and pickup systems) against the 120 Hz step
+ * budget. The damage system is left out so the crowd cannot end the run.
+ *
+ * Every crowd is timed single-threaded, then with the parallel update on
+ * ForkJoinPools of 1, 2, 4... threads (speedup is against single-threaded).
+ * Before timing, a parallel and a sequential run of the same crowd are
+ * stepped side by side and must produce identical contacts and positions.
+ *
+ * Usage: CrowdBenchmark [steps] [max threads]
+ */
+public final class CrowdBenchmark {
+    private static final int[] ANIMAL_COUNTS = { 1_000, 10_000, 100_000, 1_000_000 };
+    private static final double STEP = 1.0 / 120.0;
+    private static final long SEED = 7;
+
+    private CrowdBenchmark() { }
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        checkDeterminism(100_000, 500, Math.max(2, maxThreads));
+
+        GameSystem[] systems = { new MovementSystem(), new CollisionSystem(), new PickupSystem() };
+        System.out.printf("%10s %8s %12s %12s %10s %8s", "animals", "threads", "avg us/step", "max us/step",
+                "% budget", "speedup");
+        for (GameSystem system : systems) System.out.printf(" %10s", system.name() + " us");
+        System.out.println();
+        for (int count : ANIMAL_COUNTS) {
+            double sequentialUs = run(count, 0, steps, systems);
+            for (int threads : threadCounts(maxThreads)) {
+                run(count, threads, steps, systems, sequentialUs);
+            }
+        }
+    }
+
+    // 1, 2, 4... up to and including max
+    private static int[] threadCounts(int max) {
+        IntList counts = new IntList();
+        for (int t = 1; t < max; t *= 2) counts.add(t);
+        counts.add(Math.max(1, max));
+        int[] out = new int[counts.size()];
+        for (int i = 0; i < out.length; i++) out[i] = counts.get(i);
+        return out;
+    }
+
+    private static double run(int count, int threads, int steps, GameSystem[] systems) {
+        return run(count, threads, steps, systems, Double.NaN);
+    }
+
+    // threads 0 = sequential path; returns the average us per step
+    private static double run(int count, int threads, int steps, GameSystem[] systems, double sequentialUs) {
+        LevelModel level = newLevel(count);
+        populate(level, count);
+        PlayerModel p = new PlayerModel(level.spawnX, level.getGroundY() - PlayerModel.DEFAULT_HEIGHT);
+        Simulation sim = new Simulation(level, p);
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : null;
+        sim.setParallel(pool);
+        long[] systemNanos = new long[systems.length];
+
+        // warm up the loops before timing
+        for (int i = 0; i < 1_000; i++) step(sim, systems, new long[systems.length]);
+        long total = 0, max = 0;
+        for (int i = 0; i < steps; i++) {
+            long start = System.nanoTime();
+            step(sim, systems, systemNanos);
+            long elapsed = System.nanoTime() - start;
+            total += elapsed;
+            max = Math.max(max, elapsed);
+        }
+        if (pool != null) pool.shutdown();
+
+        double avgUs = total / 1e3 / steps;
+        String speedup = Double.isNaN(sequentialUs) ? "-" : String.format("%.2fx", sequentialUs / avgUs);
+        System.out.printf("%10d %8s %12.1f %12.1f %9.1f%% %8s", count, threads == 0 ? "seq" : threads,
+                avgUs, max / 1e3, 100.0 * avgUs / (STEP * 1e6), speedup);
+        for (long nanos : systemNanos) System.out.printf(" %10.1f", nanos / 1e3 / steps);
+        System.out.println();
+        return avgUs;
+    }
+
+    /**
+     * Step the same seeded crowd sequentially and in parallel and compare
+     * contacts and positions (including wrap respawns) after every step.
+     */
+    private static void checkDeterminism(int count, int steps, int threads) {
+        Simulation sequential = crowdSim(count);
+        Simulation parallel = crowdSim(count);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        parallel.setParallel(pool);
+        GameSystem[] seqSystems = { new MovementSystem(), new CollisionSystem() };
+        GameSystem[] parSystems = { new MovementSystem(), new CollisionSystem() };
+        long contacts = 0;
+        for (int i = 0; i < steps; i++) {
+            step(sequential, seqSystems, new long[2]);
+            step(parallel, parSystems, new long[2]);
+            IntList a = sequential.getContacts(), b = parallel.getContacts();
+            boolean same = a.size() == b.size();
+            for (int k = 0; same && k < a.size(); k++) same = a.get(k) == b.get(k);
+            EntityStore ea = sequential.getLevel().entities, eb = parallel.getLevel().entities;
+            same &= Arrays.equals(ea.x, 0, ea.size(), eb.x, 0, eb.size());
+            if (!same) {
+                pool.shutdown();
+                throw new IllegalStateException("parallel update diverged at step " + i);
+            }
+            contacts += a.size();
+        }
+        pool.shutdown();
+        System.out.printf("determinism: %d animals, %d steps, %d threads, %d contacts - identical%n",
+                count, steps, threads, contacts);
+    }
+
+    private static Simulation crowdSim(int count) {
+        LevelModel level = newLevel(count);
+        populate(level, count);
+        PlayerModel p = new PlayerModel(level.spawnX, level.getGroundY() - PlayerModel.DEFAULT_HEIGHT);
+        return new Simulation(level, p);
+    }
+
+    private static LevelModel newLevel(int count) {
+        return new LevelModel(GameSettings.Difficulty.DIFFICILE, Math.max(8_000, count * 8), SEED);
+    }
+
+    private static void populate(LevelModel level, int count) {
+        SplittableRandom rnd = new SplittableRandom(SEED);
+        for (int i = 0; i < count; i++) {
+            level.addAnimal(rnd.nextDouble(0, level.levelWidth), rnd.nextInt(LevelModel.ANIMAL_VARIANTS));
+        }
+    }
+
+    // the entity part of Simulation.step, with the player running right
+    private static void step(Simulation sim, GameSystem[] systems, long[] systemNanos) {
+        LevelModel level = sim.getLevel();
+        PlayerModel p = sim.getPlayer();
+        level.entities.savePreviousState();
+        p.x = (p.x + p.speed * STEP) % level.levelWidth;
+        for (int i = 0; i < systems.length; i++) {
+            long start = System.nanoTime();
+            systems[i].update(sim, STEP);
+            systemNanos[i] += System.nanoTime() - start;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.jumpiquest.sim;
+
+/**
+ * Costs the player a life when any contact is a hazard (once per step).
+ */
+public final class DamageSystem implements GameSystem {
+    @Override
+    public String name() {
+        return "damage";
+    }
+
+    @Override
+    public void update(Simulation sim, double dt) {
+        IntList contacts = sim.getContacts();
+        int[] flags = sim.getLevel().entities.flags;
+        for (int i = 0; i < contacts.size(); i++) {
+            if ((flags[contacts.get(i)] & EntityStore.HAZARD) != 0) {
+                sim.damagePlayer();
+                // the player was moved (or the game ended): old contacts no longer apply
+                contacts.clear();
+                return;
+            }
+        }
+    }
+}
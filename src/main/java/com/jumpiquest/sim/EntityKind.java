@@ -0,0 +1,10 @@
+package com.jumpiquest.sim;
+
+/**
+ * What an entity is, for the renderer. Gameplay behaviour comes from the
+ * entity's component flags, not from its kind.
+ */
+public enum EntityKind {
+    ANIMAL,
+    FOOD
+}
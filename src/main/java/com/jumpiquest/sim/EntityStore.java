@@ -0,0 +1,332 @@
+package com.jumpiquest.sim;
+
+import java.util.Arrays;
+
+/**
+ * Entity-component storage for the level's dynamic entities (animals, food
+ * and any future hazard or pickup). Entity i is column[i] of dense parallel
+ * primitive arrays; its {@link #flags} say which components it has, and its
+ * {@link EntityKind} picks how it is drawn. Systems ({@link GameSystem}) run
+ * as plain loops over the columns, which the JIT unrolls and vectorizes,
+ * instead of chasing one heap object per entity.
+ *
+ * Indexes are not stable: {@link #remove} moves the last entity into the
+ * freed slot, and {@link #removeEndingBefore} compacts the arrays.
+ *
+ * Range queries go through {@link XBuckets} over the indexes, kept up to
+ * date by MovementSystem and rebuilt after entities are added or removed, so
+ * they only read the entities near the range.
+ */
+public final class EntityStore {
+    // Component flags
+    /** Moved by its velocity every step (MovementSystem). */
+    public static final int MOVES = 1;
+    /** Respawns at wrapX after leaving the left edge (MovementSystem). */
+    public static final int WRAPS = 2;
+    /** Costs the player a life on contact (DamageSystem). */
+    public static final int HAZARD = 4;
+    /** Collected for value points on contact (PickupSystem). */
+    public static final int PICKUP = 8;
+
+    // Position, previous-step position (for render interpolation) and hitbox size
+    public double[] x, y, prevX, prevY, w, h;
+    // Horizontal velocity in px/s (negative moves left)
+    public double[] vx;
+    // Entities leaving the left edge reappear this far right (0 = never)
+    public double[] wrapX;
+    // Component mask, EntityKind ordinal, sprite variant and score value
+    public int[] flags, kind, variant, value;
+    private int size;
+    // Fastest |vx| and thinnest hitbox extent added since the last clear,
+    // so the collision system can tell when a step needs a swept test
+    private double maxSpeed = 0;
+    private double minExtent = Double.POSITIVE_INFINITY;
+    // Widest hitbox added since the last clear: how far before a query range
+    // an entity's left edge (its bucket) can be
+    private double maxWidth = 0;
+    private final XBuckets buckets = new XBuckets();
+    // false when the buckets must be rebuilt before the next query
+    private boolean indexed = false;
+
+    public EntityStore() {
+        this(16);
+    }
+
+    public EntityStore(int capacity) {
+        int c = Math.max(1, capacity);
+        x = new double[c];
+        y = new double[c];
+        prevX = new double[c];
+        prevY = new double[c];
+        w = new double[c];
+        h = new double[c];
+        vx = new double[c];
+        wrapX = new double[c];
+        flags = new int[c];
+        kind = new int[c];
+        variant = new int[c];
+        value = new int[c];
+    }
+
+    /**
+     * Append an entity and return its index.
+     */
+    public int add(EntityKind ekind, int eflags, double ex, double ey, double ew, double eh,
+                   double evx, double ewrapX, int evariant, int evalue) {
+        if (size == x.length) grow(size * 2);
+        int i = size++;
+        flags[i] = eflags;
+        kind[i] = ekind.ordinal();
+        x[i] = ex;
+        y[i] = ey;
+        prevX[i] = ex;
+        prevY[i] = ey;
+        w[i] = ew;
+        h[i] = eh;
+        // only MOVES entities have a velocity, so movement can be one dense loop
+        vx[i] = (eflags & MOVES) != 0 ? evx : 0;
+        maxSpeed = Math.max(maxSpeed, Math.abs(vx[i]));
+        minExtent = Math.min(minExtent, Math.min(ew, eh));
+        maxWidth = Math.max(maxWidth, ew);
+        indexed = false;
+        wrapX[i] = ewrapX;
+        variant[i] = evariant;
+        value[i] = evalue;
+        return i;
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        w = Arrays.copyOf(w, capacity);
+        h = Arrays.copyOf(h, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        wrapX = Arrays.copyOf(wrapX, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        kind = Arrays.copyOf(kind, capacity);
+        variant = Arrays.copyOf(variant, capacity);
+        value = Arrays.copyOf(value, capacity);
+    }
+
+    /**
+     * Make room for capacity entities spread over spanX pixels, so adding up
+     * to that many and querying them does not allocate.
+     */
+    public void reserve(int capacity, double spanX) {
+        if (capacity > x.length) grow(capacity);
+        buckets.reserve(capacity, spanX);
+    }
+
+    /**
+     * Make this store an exact copy of src (same indexes), reusing its arrays.
+     * They are sized like src's, so they only grow when src's do.
+     */
+    public void copyFrom(EntityStore src) {
+        int n = src.size;
+        if (x.length < src.x.length) grow(src.x.length);
+        System.arraycopy(src.x, 0, x, 0, n);
+        System.arraycopy(src.y, 0, y, 0, n);
+        System.arraycopy(src.prevX, 0, prevX, 0, n);
+        System.arraycopy(src.prevY, 0, prevY, 0, n);
+        System.arraycopy(src.w, 0, w, 0, n);
+        System.arraycopy(src.h, 0, h, 0, n);
+        System.arraycopy(src.vx, 0, vx, 0, n);
+        System.arraycopy(src.wrapX, 0, wrapX, 0, n);
+        System.arraycopy(src.flags, 0, flags, 0, n);
+        System.arraycopy(src.kind, 0, kind, 0, n);
+        System.arraycopy(src.variant, 0, variant, 0, n);
+        System.arraycopy(src.value, 0, value, 0, n);
+        size = n;
+        maxSpeed = src.maxSpeed;
+        minExtent = src.minExtent;
+        maxWidth = src.maxWidth;
+        indexed = false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+        maxSpeed = 0;
+        minExtent = Double.POSITIVE_INFINITY;
+        maxWidth = 0;
+        indexed = false;
+    }
+
+    /**
+     * Upper bound of |vx| over the entities (px/s).
+     */
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    /**
+     * Lower bound of the hitbox width and height over the entities.
+     */
+    public double getMinExtent() {
+        return minExtent;
+    }
+
+    /**
+     * Store the current positions as the previous simulation state.
+     */
+    public void savePreviousState() {
+        System.arraycopy(x, 0, prevX, 0, size);
+        System.arraycopy(y, 0, prevY, 0, size);
+    }
+
+    /**
+     * Update the X buckets after MovementSystem moved every entity by its
+     * velocity over dt and teleported the ones in teleported; re-buckets
+     * once they drifted too far.
+     */
+    void moved(double dt, IntList teleported) {
+        if (indexed && buckets.drift(maxSpeed * dt, teleported)) return;
+        indexed = false;
+    }
+
+    private XBuckets index() {
+        if (!indexed) {
+            buckets.rebuild(this);
+            indexed = true;
+        }
+        return buckets;
+    }
+
+    /**
+     * Append to out the indexes of entities whose hitbox overlaps the
+     * rectangle, in index order.
+     * @return number of indexes appended
+     */
+    public int overlapping(double left, double top, double width, double height, IntList out) {
+        double right = left + width;
+        double bottom = top + height;
+        XBuckets b = index();
+        int[] items = b.items();
+        double[] px = x, py = y, pw = w, ph = h;
+        int first = out.size();
+        IntList strays = b.strays();
+        int from = b.from(left - maxWidth), end = b.to(right);
+        for (int k = from, n = end + strays.size(); k < n; k++) {
+            int i = k < end ? items[k] : strays.get(k - end);
+            // non-short-circuit & keeps the test branch-free
+            if (left < px[i] + pw[i] & right > px[i] & top < py[i] + ph[i] & bottom > py[i]) {
+                out.add(i);
+            }
+        }
+        out.sortDistinctFrom(first);
+        return out.size() - first;
+    }
+
+    /**
+     * Same as overlapping, plus the entities the rectangle passed through
+     * during the step (swept AABB): the rectangle moved by (dx, dy) to get
+     * where it is, and each entity from prevX/prevY to x/y, at most reach
+     * horizontally. Only needed when a step moves further than half a hitbox
+     * (low tick rates).
+     */
+    public int sweeping(double left, double top, double width, double height, double dx, double dy,
+                        double reach, IntList out) {
+        double right = left + width;
+        double bottom = top + height;
+        XBuckets b = index();
+        int[] items = b.items();
+        int first = out.size();
+        IntList strays = b.strays();
+        int from = b.from(Math.min(left, left - dx) - maxWidth - reach);
+        int end = b.to(Math.max(right, right - dx) + reach);
+        for (int k = from, n = end + strays.size(); k < n; k++) {
+            int i = k < end ? items[k] : strays.get(k - end);
+            boolean hit = left < x[i] + w[i] && right > x[i] && top < y[i] + h[i] && bottom > y[i];
+            if (!hit) {
+                // motion relative to the entity, from where both started the step
+                double rdx = dx - (x[i] - prevX[i]);
+                double rdy = dy - (y[i] - prevY[i]);
+                hit = (Sweep.isFast(rdx, width, w[i]) || Sweep.isFast(rdy, height, h[i]))
+                        && Sweep.timeOfImpact(left - dx, top - dy, width, height, rdx, rdy,
+                                prevX[i], prevY[i], w[i], h[i]) != Sweep.NONE;
+            }
+            if (hit) {
+                out.add(i);
+            }
+        }
+        out.sortDistinctFrom(first);
+        return out.size() - first;
+    }
+
+    /**
+     * Append to out the indexes of entities with all of withFlags whose X
+     * extent overlaps [minX, maxX], in index order.
+     * @return number of indexes appended
+     */
+    public int query(double minX, double maxX, int withFlags, IntList out) {
+        XBuckets b = index();
+        int[] items = b.items();
+        double[] px = x, pw = w;
+        int[] pf = flags;
+        int first = out.size();
+        IntList strays = b.strays();
+        int from = b.from(minX - maxWidth), end = b.to(maxX);
+        for (int k = from, n = end + strays.size(); k < n; k++) {
+            int i = k < end ? items[k] : strays.get(k - end);
+            if (px[i] <= maxX & px[i] + pw[i] >= minX & (pf[i] & withFlags) == withFlags) {
+                out.add(i);
+            }
+        }
+        out.sortDistinctFrom(first);
+        return out.size() - first;
+    }
+
+    /**
+     * Remove entity i by moving the last entity into its slot.
+     */
+    public void remove(int i) {
+        indexed = false;
+        int last = --size;
+        if (i == last) return;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        w[i] = w[last];
+        h[i] = h[last];
+        vx[i] = vx[last];
+        wrapX[i] = wrapX[last];
+        flags[i] = flags[last];
+        kind[i] = kind[last];
+        variant[i] = variant[last];
+        value[i] = value[last];
+    }
+
+    /**
+     * Remove every entity whose right edge is before boundary, except those
+     * with any of keepFlags, keeping the order of the others.
+     */
+    public void removeEndingBefore(double boundary, int keepFlags) {
+        indexed = false;
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (x[i] + w[i] < boundary && (flags[i] & keepFlags) == 0) continue;
+            if (kept != i) {
+                x[kept] = x[i];
+                y[kept] = y[i];
+                prevX[kept] = prevX[i];
+                prevY[kept] = prevY[i];
+                w[kept] = w[i];
+                h[kept] = h[i];
+                vx[kept] = vx[i];
+                wrapX[kept] = wrapX[i];
+                flags[kept] = flags[i];
+                kind[kept] = kind[i];
+                variant[kept] = variant[i];
+                value[kept] = value[i];
+            }
+            kept++;
+        }
+        size = kept;
+    }
+}
@@ -0,0 +1,13 @@
+package com.jumpiquest.sim;
+
+/**
+ * One stage of the entity update, run by {@link Simulation#step} in order
+ * over the level's {@link EntityStore}. Systems select entities by component
+ * flags, so a new hazard or pickup type only needs new flag combinations.
+ */
+public interface GameSystem {
+    /** Short name for timing reports. */
+    String name();
+
+    void update(Simulation sim, double dt);
+}
@@ -0,0 +1,143 @@
+package com.jumpiquest.sim;
+
+import java.util.function.LongConsumer;
+
+import com.jumpiquest.trace.TickEvent;
+
+import jdk.jfr.EventType;
+
+/**
+ * The simulation-thread side of the game loop, without JavaFX: apply the
+ * time-stamped input events due by the tick (or the replayed input), record
+ * it, step the simulation, move the camera and publish a snapshot. The
+ * Engine runs it on its {@link SimulationThread}; {@link AllocationBudget}
+ * runs the same ticks headless.
+ *
+ * Input is offered to {@link #getInputRing()} by one other thread (the
+ * JavaFX thread); snapshots are read from {@link #getSnapshots()} by one.
+ */
+public final class GameTick implements LongConsumer {
+    private static final int TICK_INPUT = 0, TICK_STEP = 1, TICK_SNAPSHOT = 2;
+    // escape analysis does not always remove an unused event object, so one
+    // is only created while a recording wants it
+    private static final EventType TICK_EVENT = EventType.getEventType(TickEvent.class);
+
+    private final Simulation simulation;
+    private final double step;
+    // the player is kept this far from the left edge of the view
+    private final double cameraLead;
+    // Input changes, time-stamped by the producer, consumed by the step they fall in
+    private final InputRing inputRing = new InputRing(256);
+    // Held input as of the last consumed event
+    private int input = 0;
+    // From input event to the simulation step that applied it
+    private final LatencyHistogram inputLatency = new LatencyHistogram();
+    // null = not recorded
+    private final InputLogWriter recorder;
+    // Recorded input played back instead of the ring (null = live game)
+    private final InputLog.Cursor replayInput;
+    private final SnapshotExchange snapshots = new SnapshotExchange();
+    private final PhaseProfiler phases = new PhaseProfiler("input", "step", "snapshot");
+    // horizontal camera offset in world coords, after this step and the previous one
+    private double cameraX = 0;
+    private double prevCameraX = 0;
+
+    /**
+     * @param viewWidth width of the view the camera follows the player in
+     * @param recorder  records the input of every tick, or null
+     * @param replay    input to step with instead of the ring, or null
+     */
+    public GameTick(Simulation simulation, double step, double viewWidth, InputLogWriter recorder,
+                    InputLog.Cursor replay) {
+        this.simulation = simulation;
+        this.step = step;
+        this.cameraLead = viewWidth / 3.0;
+        this.recorder = recorder;
+        this.replayInput = replay;
+        // the first ticks then copy into buffers already sized for the level
+        snapshots.prime(simulation);
+    }
+
+    @Override
+    public void accept(long tickNanos) {
+        tick(tickNanos);
+    }
+
+    /**
+     * One simulation step: apply the input events due by tickNanos, then
+     * physics, collisions, pickups and win/lose rules, then the camera, then
+     * publish a snapshot. Does nothing once the game is finished.
+     * @param tickNanos the time this step is scheduled for (System.nanoTime() scale)
+     */
+    public void tick(long tickNanos) {
+        if (simulation.isFinished()) return;
+        TickEvent event = TICK_EVENT.isEnabled() ? new TickEvent() : null;
+        if (event != null) event.begin();
+        // input held at any point since the last step counts for this one,
+        // so a tap shorter than a step is not lost
+        int in = input;
+        long now = System.nanoTime();
+        long t = phases.start();
+        while (inputRing.hasEventBefore(tickNanos)) {
+            inputLatency.record(now - inputRing.peekTime());
+            input = inputRing.poll();
+            in |= input;
+        }
+        // a replay ignores the ring and steps with the recorded input
+        if (replayInput != null) in = replayInput.next();
+        if (recorder != null) recorder.record(in);
+        prevCameraX = cameraX;
+        t = phases.lap(TICK_INPUT, t);
+        simulation.step(step, in);
+        // keep the player at a third of the view from the left
+        if (!simulation.isFinished()) followPlayer();
+        t = phases.lap(TICK_STEP, t);
+        publish(in);
+        phases.lap(TICK_SNAPSHOT, t);
+        if (event != null && event.shouldCommit()) {
+            event.tick = simulation.getTicks();
+            event.input = in;
+            event.entities = simulation.getLevel().entities.size();
+            event.commit();
+        }
+    }
+
+    /**
+     * Publish a snapshot of the current state, stepped with input.
+     */
+    public void publish(int input) {
+        Snapshot s = snapshots.back();
+        s.capture(simulation, input);
+        s.cameraX = cameraX;
+        s.prevCameraX = prevCameraX;
+        snapshots.publish();
+    }
+
+    /**
+     * Move the camera to the player without scrolling there (after a respawn).
+     */
+    public void recenter() {
+        followPlayer();
+        prevCameraX = cameraX;
+    }
+
+    private void followPlayer() {
+        cameraX = Math.max(0, simulation.getPlayer().x - cameraLead);
+    }
+
+    public InputRing getInputRing() {
+        return inputRing;
+    }
+
+    public SnapshotExchange getSnapshots() {
+        return snapshots;
+    }
+
+    public LatencyHistogram getInputLatency() {
+        return inputLatency;
+    }
+
+    public PhaseProfiler getPhases() {
+        return phases;
+    }
+}
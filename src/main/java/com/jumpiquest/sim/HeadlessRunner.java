@@ -0,0 +1,102 @@
+package com.jumpiquest.sim;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Runs complete games without a window, stepping the simulation as fast as
+ * possible with {@link AutoPilot} input, and prints outcomes and throughput.
+ *
+ * With a seed, game i of each difficulty is played on the level of seed + i
+ * and a checksum of every final state is printed: the same seed must print
+ * the same checksums on every run and machine.
+ *
+ * Usage: HeadlessRunner [gamesPerDifficulty] [endless|fixed] [seed]
+ */
+public final class HeadlessRunner {
+    // Same fixed step as the JavaFX engine
+    public static final double STEP = 1.0 / 120.0;
+    // Give up on a run after this much simulated time
+    private static final double MAX_SIM_SECONDS = 600.0;
+
+    private HeadlessRunner() { }
+
+    /**
+     * Play one game to completion (or timeout) and return the finished simulation.
+     */
+    public static Simulation play(GameSettings.Difficulty difficulty) {
+        return play(difficulty, false);
+    }
+
+    /**
+     * Play one game, on an endless streamed level if requested.
+     */
+    public static Simulation play(GameSettings.Difficulty difficulty, boolean endless) {
+        return play(difficulty, endless, LevelModel.newSeed());
+    }
+
+    /**
+     * Play one game on the level of the given seed; a fixed-length level is
+     * streamed from its baked form, as the game plays it.
+     */
+    public static Simulation play(GameSettings.Difficulty difficulty, boolean endless, long seed) {
+        LevelModel level = endless ? LevelModel.endless(difficulty, seed) : LevelModel.baked(difficulty, seed);
+        Simulation sim = new Simulation(level, new PlayerModel(100, 400));
+        long maxTicks = (long) (MAX_SIM_SECONDS / STEP);
+        while (!sim.isFinished() && sim.getTicks() < maxTicks) {
+            sim.step(STEP, AutoPilot.decide(sim));
+        }
+        return sim;
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        boolean endless = args.length > 1 && args[1].equalsIgnoreCase("endless");
+        Long seed = args.length > 2 ? Long.valueOf(args[2]) : null;
+        for (GameSettings.Difficulty diff : GameSettings.Difficulty.values()) {
+            int won = 0, lost = 0, timedOut = 0;
+            long ticks = 0, score = 0;
+            double distance = 0;
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < games; i++) {
+                Simulation sim = seed != null ? play(diff, endless, seed + i) : play(diff, endless);
+                checksum = checksum * 31 + fingerprint(sim);
+                ticks += sim.getTicks();
+                distance += sim.getLastCheckpointX();
+                score += sim.getScore();
+                switch (sim.getOutcome()) {
+                    case WON: won++; break;
+                    case LOST: lost++; break;
+                    default: timedOut++; break;
+                }
+            }
+            double wallSeconds = (System.nanoTime() - start) / 1e9;
+            double simSeconds = ticks * STEP;
+            System.out.printf("%-9s games=%d won=%d lost=%d timeout=%d avgScore=%.1f avgDistance=%.0f ticks/s=%.0f speedup=%.0fx%n",
+                    diff, games, won, lost, timedOut, (double) score / games, distance / games,
+                    ticks / wallSeconds, simSeconds / wallSeconds);
+            if (seed != null) System.out.printf("%-9s checksum=%016x%n", diff, checksum);
+        }
+    }
+
+    /**
+     * Hash of a simulation's observable state: outcome, tick, score, player
+     * and every entity, bit for bit.
+     */
+    public static long fingerprint(Simulation sim) {
+        PlayerModel p = sim.getPlayer();
+        EntityStore e = sim.getLevel().entities;
+        long h = sim.getOutcome().ordinal();
+        h = h * 31 + sim.getTicks();
+        h = h * 31 + sim.getScore();
+        h = h * 31 + p.getLives();
+        h = h * 31 + Double.doubleToLongBits(p.x);
+        h = h * 31 + Double.doubleToLongBits(p.y);
+        for (int i = 0; i < e.size(); i++) {
+            h = h * 31 + Double.doubleToLongBits(e.x[i]);
+            h = h * 31 + Double.doubleToLongBits(e.y[i]);
+            h = h * 31 + e.variant[i];
+        }
+        return h;
+    }
+}
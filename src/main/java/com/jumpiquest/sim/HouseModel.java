@@ -0,0 +1,22 @@
+package com.jumpiquest.sim;
+
+/**
+ * End-level house bounds. Entering it finishes the level.
+ */
+public class HouseModel {
+    public final double x;
+    public final double y;
+    public final double width;
+    public final double height;
+
+    public HouseModel(double x, double y, double width, double height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public boolean intersects(double rx, double ry, double rw, double rh) {
+        return rx < x + width && rx + rw > x && ry < y + height && ry + rh > y;
+    }
+}
@@ -0,0 +1,180 @@
+package com.jumpiquest.sim;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * A recorded run: the level (difficulty, endless and baked flags, seed), the player
+ * size, and the Simulation.INPUT_* bits of every step. Since the simulation
+ * is deterministic, stepping a new simulation of the same level with the
+ * same bits replays the run exactly.
+ *
+ * Binary format (written by {@link InputLogWriter}), big-endian:
+ * <pre>
+ * "JQR1"  magic
+ * byte    difficulty ordinal
+ * byte    flags (1 = endless, 2 = baked: played from the chunked level format)
+ * long    seed
+ * double  player width, player height
+ * varint  steps per second
+ * (varint steps since the previous change, byte new input bits)*
+ * varint  steps since the previous change, byte 0xFF   end of input
+ * varint  total steps, varint score, byte outcome ordinal
+ * </pre>
+ * Input only changes a few times per second, so a run is a few bytes per
+ * second of play. A log without its end (the game was killed) is still
+ * replayable up to its last change.
+ */
+public final class InputLog {
+    static final byte[] MAGIC = { 'J', 'Q', 'R', '1' };
+    static final int FLAG_ENDLESS = 1;
+    static final int FLAG_BAKED = 2;
+    static final int END = 0xFF;
+
+    public final GameSettings.Difficulty difficulty;
+    public final boolean endless;
+    // the level was streamed from its baked form (LevelModel.baked / LevelCache)
+    public final boolean baked;
+    public final long seed;
+    public final double playerWidth, playerHeight;
+    public final int stepsPerSecond;
+    // step index at which each input change happens, and the new bits
+    private final IntList changeSteps = new IntList();
+    private final IntList changeBits = new IntList();
+    // footer, if the log was finished
+    private boolean complete = false;
+    private long totalSteps = -1;
+    private int score = -1;
+    private Simulation.Outcome outcome = null;
+
+    InputLog(GameSettings.Difficulty difficulty, boolean endless, boolean baked, long seed,
+             double playerWidth, double playerHeight, int stepsPerSecond) {
+        this.difficulty = difficulty;
+        this.endless = endless;
+        this.baked = baked;
+        this.seed = seed;
+        this.playerWidth = playerWidth;
+        this.playerHeight = playerHeight;
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    public static InputLog read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) throw new IOException("Not an input log: " + file);
+            }
+            GameSettings.Difficulty difficulty = GameSettings.Difficulty.values()[in.readUnsignedByte()];
+            int flags = in.readUnsignedByte();
+            boolean endless = (flags & FLAG_ENDLESS) != 0;
+            boolean baked = (flags & FLAG_BAKED) != 0;
+            long seed = in.readLong();
+            double w = in.readDouble();
+            double h = in.readDouble();
+            InputLog log = new InputLog(difficulty, endless, baked, seed, w, h, (int) readVarint(in));
+            long step = 0;
+            try {
+                while (true) {
+                    step += readVarint(in);
+                    int bits = in.readUnsignedByte();
+                    if (bits == END) break;
+                    log.changeSteps.add((int) step);
+                    log.changeBits.add(bits);
+                }
+                log.totalSteps = readVarint(in);
+                log.score = (int) readVarint(in);
+                log.outcome = Simulation.Outcome.values()[in.readUnsignedByte()];
+                log.complete = true;
+            } catch (EOFException e) {
+                // unfinished recording: replay what is there
+                log.totalSteps = step;
+            }
+            return log;
+        }
+    }
+
+    static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    /**
+     * A new level and player, as the recorded run started.
+     */
+    public Simulation newSimulation() {
+        return new Simulation(newLevel(), new PlayerModel(100, 400, playerWidth, playerHeight));
+    }
+
+    /**
+     * A new copy of the recorded run's level.
+     */
+    public LevelModel newLevel() {
+        if (endless) return LevelModel.endless(difficulty, seed);
+        return baked ? LevelModel.baked(difficulty, seed) : LevelModel.seeded(difficulty, seed);
+    }
+
+    /** True if the recording was finished and has a footer. */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /** Recorded steps (up to the last input change if unfinished). */
+    public long getTotalSteps() {
+        return totalSteps;
+    }
+
+    /** Final score of the recorded run, or -1 if unfinished. */
+    public int getScore() {
+        return score;
+    }
+
+    /** Outcome of the recorded run, or null if unfinished. */
+    public Simulation.Outcome getOutcome() {
+        return outcome;
+    }
+
+    public int getChangeCount() {
+        return changeSteps.size();
+    }
+
+    /**
+     * A cursor returning the input of step 0, 1, 2... in order.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    public final class Cursor {
+        private long step = 0;
+        private int next = 0;
+        private int bits = 0;
+
+        /** Input bits of the next step. */
+        public int next() {
+            while (next < changeSteps.size() && changeSteps.get(next) <= step) {
+                bits = changeBits.get(next++);
+            }
+            step++;
+            return bits;
+        }
+
+        /** True once every recorded step has been returned. */
+        public boolean isDone() {
+            return step >= totalSteps;
+        }
+    }
+}
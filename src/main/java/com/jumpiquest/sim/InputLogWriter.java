@@ -0,0 +1,180 @@
+package com.jumpiquest.sim;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Records the input of a run as an {@link InputLog}. record() is called
+ * once per step on the simulation thread and only appends to a small
+ * buffer when the input changes; full buffers are written to the file by a
+ * background thread, so the step never waits for the disk. record() swaps
+ * between two buffers and hands the full one over with a task created
+ * once; it only allocates to restart the writer thread after a second idle.
+ *
+ * record() and finish() may be called from different threads (a game quit
+ * from the UI finishes the log of the simulation thread).
+ */
+public final class InputLogWriter {
+    // one shared writer thread for all recordings, like ScoreManager's DB
+    // writer; queued in an array so queueing a task does not allocate. The
+    // thread ends once idle, so a finished recording leaves nothing running
+    // (a tool's JVM or exec:java need not wait for it) and the next hand-off
+    // starts it again.
+    private static final ThreadPoolExecutor IO = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1024), r -> {
+                Thread t = new Thread(r, "replay-writer");
+                t.setDaemon(true);
+                return t;
+            });
+    static {
+        IO.allowCoreThreadTimeOut(true);
+    }
+    private static final int FLUSH_BYTES = 512;
+
+    private final Path file;
+    private byte[] buffer = new byte[FLUSH_BYTES + 32];
+    private int length = 0;
+    // full buffer handed to the writer thread (null = none), and the buffer
+    // to swap in next (null while the writer has it)
+    private byte[] pending = null;
+    private int pendingLength = 0;
+    private byte[] spare = new byte[FLUSH_BYTES + 32];
+    private final Runnable writePending = this::writePending;
+    private long step = 0;
+    private long lastChange = 0;
+    private int bits = 0;
+    private boolean finished = false;
+    // opened on the writer thread
+    private OutputStream out;
+
+    public InputLogWriter(Path file, GameSettings.Difficulty difficulty, boolean endless, boolean baked, long seed,
+                          double playerWidth, double playerHeight, int stepsPerSecond) {
+        this.file = file;
+        put(InputLog.MAGIC);
+        putByte(difficulty.ordinal());
+        putByte((endless ? InputLog.FLAG_ENDLESS : 0) | (baked ? InputLog.FLAG_BAKED : 0));
+        putLong(seed);
+        putLong(Double.doubleToLongBits(playerWidth));
+        putLong(Double.doubleToLongBits(playerHeight));
+        putVarint(stepsPerSecond);
+        flush(false);
+    }
+
+    /**
+     * Record the input of the next step (simulation thread).
+     */
+    public synchronized void record(int inputBits) {
+        if (finished) return;
+        if (inputBits != bits) {
+            putVarint(step - lastChange);
+            putByte(inputBits);
+            bits = inputBits;
+            lastChange = step;
+            // still writing the last one: keep buffering
+            if (length >= FLUSH_BYTES && pending == null) handOff();
+        }
+        step++;
+    }
+
+    /**
+     * Write the footer and close the file. Later calls are ignored.
+     * @return completes once the file is written and closed
+     */
+    public synchronized CompletableFuture<Void> finish(int score, Simulation.Outcome outcome) {
+        if (finished) return CompletableFuture.completedFuture(null);
+        finished = true;
+        putVarint(step - lastChange);
+        putByte(InputLog.END);
+        putVarint(step);
+        putVarint(Math.max(0, score));
+        putByte(outcome.ordinal());
+        return flush(true);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // hand a copy of the buffered bytes to the writer thread
+    private CompletableFuture<Void> flush(boolean close) {
+        byte[] chunk = Arrays.copyOf(buffer, length);
+        length = 0;
+        return CompletableFuture.runAsync(() -> write(chunk, chunk.length, close), IO);
+    }
+
+    // hand the buffer itself to the writer thread and fill the spare one meanwhile
+    private void handOff() {
+        pending = buffer;
+        pendingLength = length;
+        buffer = spare;
+        spare = null;
+        length = 0;
+        IO.execute(writePending);
+    }
+
+    // writer thread
+    private void writePending() {
+        byte[] chunk;
+        int n;
+        synchronized (this) {
+            chunk = pending;
+            n = pendingLength;
+        }
+        write(chunk, n, false);
+        synchronized (this) {
+            spare = chunk;
+            pending = null;
+        }
+    }
+
+    // writer thread: tasks run in the order they were queued
+    private void write(byte[] chunk, int n, boolean close) {
+        try {
+            if (out == null) {
+                if (file.getParent() != null) Files.createDirectories(file.getParent());
+                out = Files.newOutputStream(file);
+            }
+            out.write(chunk, 0, n);
+            if (close) out.close();
+            else out.flush();
+        } catch (IOException e) {
+            System.out.println("Could not write replay " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) buffer = Arrays.copyOf(buffer, buffer.length * 2);
+    }
+
+    private void put(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void putByte(int b) {
+        ensure(1);
+        buffer[length++] = (byte) b;
+    }
+
+    private void putLong(long v) {
+        for (int shift = 56; shift >= 0; shift -= 8) putByte((int) (v >>> shift));
+    }
+
+    private void putVarint(long v) {
+        while ((v & ~0x7FL) != 0) {
+            putByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        putByte((int) v);
+    }
+}
@@ -0,0 +1,80 @@
+package com.jumpiquest.sim;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer ring of timestamped input
+ * events. The producer (the JavaFX thread) offers the new
+ * Simulation.INPUT_* mask whenever the held keys change; the consumer (the
+ * simulation thread) polls the events that happened before the step it is
+ * about to run, so no key change is lost between two polls.
+ */
+public final class InputRing {
+    private final long[] times;
+    private final int[] bits;
+    private final int mask;
+    // next slot to write (producer) and to read (consumer)
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private long dropped = 0;
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public InputRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        times = new long[size];
+        bits = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Producer: queue an input mask that took effect at nanos
+     * (System.nanoTime()). Returns false, and counts a drop, if the ring is full.
+     */
+    public boolean offer(long nanos, int inputBits) {
+        long t = tail.get();
+        if (t - head.get() == times.length) {
+            dropped++;
+            return false;
+        }
+        int slot = (int) t & mask;
+        times[slot] = nanos;
+        bits[slot] = inputBits;
+        // release: the slot is written before the consumer can see it
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /**
+     * Consumer: true if the oldest queued event happened at or before deadline.
+     */
+    public boolean hasEventBefore(long deadline) {
+        long h = head.get();
+        return h != tail.get() && times[(int) h & mask] - deadline <= 0;
+    }
+
+    /**
+     * Consumer: timestamp of the oldest queued event (only if one is queued).
+     */
+    public long peekTime() {
+        return times[(int) head.get() & mask];
+    }
+
+    /**
+     * Consumer: remove the oldest queued event and return its input mask.
+     */
+    public int poll() {
+        long h = head.get();
+        int b = bits[(int) h & mask];
+        head.lazySet(h + 1);
+        return b;
+    }
+
+    /**
+     * Events rejected because the consumer fell a full ring behind (producer thread).
+     */
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,64 @@
+package com.jumpiquest.sim;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used to return entity indexes from batch
+ * queries without boxing.
+ */
+public final class IntList {
+    private int[] items;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    public IntList(int capacity) {
+        items = new int[Math.max(1, capacity)];
+    }
+
+    public void add(int value) {
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        items[size++] = value;
+    }
+
+    public int get(int i) {
+        return items[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Sort the items from index from to the end in ascending order and drop
+     * repeated values (insertion sort: meant for the few indexes a query
+     * appends).
+     */
+    public void sortDistinctFrom(int from) {
+        int[] a = items;
+        for (int i = from + 1; i < size; i++) {
+            int v = a[i];
+            int j = i - 1;
+            while (j >= from && a[j] > v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+        int kept = Math.min(size, from + 1);
+        for (int i = from + 1; i < size; i++) {
+            if (a[i] != a[kept - 1]) a[kept++] = a[i];
+        }
+        size = kept;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
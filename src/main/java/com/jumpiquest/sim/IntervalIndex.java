@@ -0,0 +1,120 @@
+package com.jumpiquest.sim;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorted index of horizontal intervals [start, end] (holes, walls) so that
+ * point and range queries only touch the entries near the query instead of
+ * scanning the whole level. Entries are kept sorted by start; a query binary
+ * searches from {@code queryMin - maxLength}, which bounds how far left an
+ * overlapping interval can begin.
+ */
+public class IntervalIndex<T> {
+    private double[] starts = new double[16];
+    private double[] ends = new double[16];
+    private Object[] items = new Object[16];
+    private int size = 0;
+    private double maxLength = 0;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Make room for capacity intervals, so adding up to that many does not
+     * allocate.
+     */
+    public void reserve(int capacity) {
+        if (capacity <= starts.length) return;
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        items = Arrays.copyOf(items, capacity);
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        maxLength = 0;
+    }
+
+    /**
+     * Insert an interval. Appending in increasing start order (how levels are
+     * generated) is O(1); out-of-order inserts shift the tail.
+     */
+    public void add(double start, double end, T item) {
+        if (size == starts.length) {
+            int cap = size * 2;
+            starts = Arrays.copyOf(starts, cap);
+            ends = Arrays.copyOf(ends, cap);
+            items = Arrays.copyOf(items, cap);
+        }
+        int pos = size;
+        if (size > 0 && start < starts[size - 1]) {
+            pos = lowerBound(start);
+            System.arraycopy(starts, pos, starts, pos + 1, size - pos);
+            System.arraycopy(ends, pos, ends, pos + 1, size - pos);
+            System.arraycopy(items, pos, items, pos + 1, size - pos);
+        }
+        starts[pos] = start;
+        ends[pos] = end;
+        items[pos] = item;
+        size++;
+        maxLength = Math.max(maxLength, end - start);
+    }
+
+    /**
+     * Remove every interval that ends before x (used to drop level behind the player).
+     */
+    public void removeEndingBefore(double x) {
+        int keep = 0;
+        for (int i = 0; i < size; i++) {
+            if (ends[i] >= x) {
+                starts[keep] = starts[i];
+                ends[keep] = ends[i];
+                items[keep] = items[i];
+                keep++;
+            }
+        }
+        Arrays.fill(items, keep, size, null);
+        size = keep;
+    }
+
+    /**
+     * Return the first interval containing x, or null.
+     */
+    @SuppressWarnings("unchecked")
+    public T findContaining(double x) {
+        for (int i = lowerBound(x - maxLength); i < size && starts[i] <= x; i++) {
+            if (x <= ends[i]) return (T) items[i];
+        }
+        return null;
+    }
+
+    /**
+     * Append to {@code out}, in start order, every interval overlapping [min, max].
+     * @return number of intervals appended
+     */
+    @SuppressWarnings("unchecked")
+    public int query(double min, double max, List<T> out) {
+        int found = 0;
+        for (int i = lowerBound(min - maxLength); i < size && starts[i] <= max; i++) {
+            if (ends[i] >= min) {
+                out.add((T) items[i]);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    // first index whose start is >= x
+    private int lowerBound(double x) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < x) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
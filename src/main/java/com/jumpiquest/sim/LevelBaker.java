@@ -0,0 +1,122 @@
+package com.jumpiquest.sim;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Bakes a generated level into a {@link LevelFile}, then checks it: the time
+ * and memory to map the file and decode the chunks around the spawn, and that
+ * streaming the whole file back reproduces the generated level exactly.
+ *
+ * compare: plays the generated and the baked level of many seeds on every
+ * difficulty with each of {@link SoakRunner}'s inputs and checks that both
+ * games end in the same state ({@link HeadlessRunner#fingerprint}: ticks,
+ * outcome, score, player and every entity left). Fails if any seed differs.
+ *
+ * Usage: LevelBaker [out.jql] [difficulty] [seed] [width]
+ *        LevelBaker compare [gamesPerDifficulty] [seed]
+ */
+public final class LevelBaker {
+    private LevelBaker() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("compare")) {
+            int games = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+            long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+            if (!compare(games, seed)) System.exit(1);
+            return;
+        }
+        Path file = Paths.get(args.length > 0 ? args[0] : "levels/baked.jql");
+        GameSettings.Difficulty difficulty = args.length > 1
+                ? GameSettings.Difficulty.valueOf(args[1].toUpperCase()) : GameSettings.Difficulty.DIFFICILE;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : LevelModel.newSeed();
+        int width = args.length > 3 ? Integer.parseInt(args[3]) : LevelModel.defaultWidth(difficulty);
+
+        long start = System.nanoTime();
+        LevelModel generated = new LevelModel(difficulty, width, seed);
+        double generateMs = (System.nanoTime() - start) / 1e6;
+        LevelFile.write(generated, LevelModel.CHUNK_WIDTH, file);
+        System.out.printf("baked %s: %s seed=%d width=%d, %d bytes (generated in %.1f ms)%n",
+                file, difficulty, seed, width, Files.size(file), generateMs);
+
+        // load as the game does: map, decode the chunks near the spawn; the
+        // first load also pays for class loading, the second is steady state
+        LevelModel loaded = null;
+        for (String run : new String[] { "cold", "warm" }) {
+            long allocatedBefore = allocatedBytes();
+            start = System.nanoTime();
+            LevelFile levelFile = LevelFile.open(file);
+            loaded = LevelModel.load(levelFile);
+            double loadMs = (System.nanoTime() - start) / 1e6;
+            long allocated = allocatedBytes() - allocatedBefore;
+            System.out.printf("%s load %.2f ms: %d of %d chunks decoded, %d obstacles, %d entities, %d KB allocated%n",
+                    run, loadMs, loaded.getChunksGenerated(), levelFile.getChunkCount(), loaded.obstacles.size(),
+                    loaded.entities.size(), allocated / 1024);
+        }
+
+        // stream every chunk (nothing is dropped with the checkpoint at 0)
+        loaded.stream(width, 0);
+        boolean same = sameLevel(generated, loaded);
+        System.out.println(same ? "streamed level matches the generated one" : "MISMATCH between baked and generated level");
+        if (!same) System.exit(1);
+    }
+
+    private static boolean compare(int games, long seed) {
+        boolean same = true;
+        for (SoakRunner.Input input : SoakRunner.Input.values()) {
+            for (GameSettings.Difficulty difficulty : GameSettings.Difficulty.values()) {
+                int diverged = 0;
+                long ticks = 0;
+                for (int i = 0; i < games; i++) {
+                    long gameSeed = seed + i;
+                    Simulation generated = SoakRunner.play(LevelModel.seeded(difficulty, gameSeed), input);
+                    Simulation baked = SoakRunner.play(LevelModel.baked(difficulty, gameSeed), input);
+                    ticks += generated.getTicks();
+                    if (HeadlessRunner.fingerprint(generated) != HeadlessRunner.fingerprint(baked)
+                            && diverged++ == 0) {
+                        System.out.printf("%-9s %-9s seed %d differs%n", input.name().toLowerCase(), difficulty,
+                                gameSeed);
+                    }
+                }
+                System.out.printf("%-9s %-9s games=%d ticks=%d diverged=%d%n", input.name().toLowerCase(),
+                        difficulty, games, ticks, diverged);
+                same &= diverged == 0;
+            }
+        }
+        System.out.println(same ? "baked levels play like the generated ones" : "MISMATCH between baked and generated play");
+        return same;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static boolean sameLevel(LevelModel a, LevelModel b) {
+        return Arrays.equals(obstacleKeys(a), obstacleKeys(b))
+                && Arrays.equals(entityKeys(a.entities), entityKeys(b.entities))
+                && a.house != null && b.house != null && a.house.x == b.house.x
+                && a.endX == b.endX && a.levelWidth == b.levelWidth;
+    }
+
+    // one sortable string per obstacle: file order groups them per chunk and type
+    private static String[] obstacleKeys(LevelModel level) {
+        return level.obstacles.stream()
+                .map(o -> o.type + " " + o.x + " " + o.w + " " + o.h + " " + o.variant)
+                .sorted().toArray(String[]::new);
+    }
+
+    private static String[] entityKeys(EntityStore e) {
+        String[] keys = new String[e.size()];
+        for (int i = 0; i < e.size(); i++) {
+            keys[i] = e.kind[i] + " " + e.x[i] + " " + e.y[i] + " " + e.wrapX[i] + " " + e.variant[i] + " " + e.value[i];
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+}
@@ -0,0 +1,294 @@
+package com.jumpiquest.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * On-disk cache of baked fixed-length levels ({@link LevelFile}), keyed by
+ * difficulty, seed and {@link LevelModel#GENERATOR_VERSION}. A hit reads the
+ * cached file and skips generation; a miss generates and bakes the level in
+ * memory, plays it from those bytes and writes them to the cache in the
+ * background. Either way the level is streamed from the same bytes, so a
+ * hit and a miss play identically (see {@link LevelModel#baked}).
+ *
+ * The cache keeps its total file size under a cap by deleting the least
+ * recently used levels. Recency survives restarts as the files' modified
+ * times, which a hit refreshes. Hits are read, not memory-mapped: a cached
+ * level is short enough to be decoded whole at load anyway, and a mapped
+ * file could not be deleted or written over (on Windows) while its level
+ * is still playing.
+ */
+public final class LevelCache {
+    private static final Path DEFAULT_DIR = Paths.get("cache", "levels");
+    private static final long DEFAULT_MAX_BYTES = 8L << 20;
+    private static final LevelCache SHARED = new LevelCache(DEFAULT_DIR, DEFAULT_MAX_BYTES);
+
+    // one shared thread for preloads and file writes, like the replay writer
+    private static final ExecutorService IO = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "level-cache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Path dir;
+    private final long maxBytes;
+    // file name -> size in bytes, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // bytes of levels still queued for writing, served from memory until then
+    private final Map<String, ByteBuffer> pending = new HashMap<>();
+    private boolean scanned = false;
+    private long totalBytes = 0;
+    private long hits = 0, misses = 0, evictions = 0;
+    private final LatencyHistogram hitNanos = new LatencyHistogram();
+    private final LatencyHistogram missNanos = new LatencyHistogram();
+
+    public LevelCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /** The game's cache, under cache/levels. */
+    public static LevelCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * The difficulty's fixed-length level for seed, from the cache if it is
+     * there, else generated and added to it.
+     */
+    public LevelModel load(GameSettings.Difficulty difficulty, long seed) {
+        return LevelModel.load(get(difficulty, seed));
+    }
+
+    /**
+     * The baked level file for (difficulty, seed); see {@link #load}.
+     */
+    public synchronized LevelFile get(GameSettings.Difficulty difficulty, long seed) {
+        long start = System.nanoTime();
+        scan();
+        String name = fileName(difficulty, seed);
+        if (entries.get(name) != null) {
+            LevelFile file = open(name, difficulty, seed);
+            if (file != null) {
+                hits++;
+                hitNanos.record(System.nanoTime() - start);
+                touch(dir.resolve(name));
+                return file;
+            }
+        }
+        ByteBuffer bytes = LevelFile.encode(LevelModel.seeded(difficulty, seed), LevelModel.CHUNK_WIDTH);
+        LevelFile file = LevelFile.wrap(dir.resolve(name), bytes);
+        misses++;
+        missNanos.record(System.nanoTime() - start);
+        store(name, bytes);
+        return file;
+    }
+
+    /**
+     * Generate and cache a level in the background (the next game's level,
+     * tomorrow's daily seed) so starting it later is a hit.
+     */
+    public CompletableFuture<Void> preload(GameSettings.Difficulty difficulty, long seed) {
+        return CompletableFuture.runAsync(() -> get(difficulty, seed), IO);
+    }
+
+    public synchronized boolean contains(GameSettings.Difficulty difficulty, long seed) {
+        scan();
+        return entries.containsKey(fileName(difficulty, seed));
+    }
+
+    static String fileName(GameSettings.Difficulty difficulty, long seed) {
+        return difficulty.name().toLowerCase() + "-" + Long.toHexString(seed)
+                + "-g" + LevelModel.GENERATOR_VERSION + ".jql";
+    }
+
+    // Read a cached file; null (and the entry dropped) if it is missing, corrupt or truncated
+    // (LevelFile checks the header and chunk directory when opening) or not the expected level
+    private LevelFile open(String name, GameSettings.Difficulty difficulty, long seed) {
+        Path path = dir.resolve(name);
+        ByteBuffer bytes = pending.get(name);
+        if (bytes != null) return LevelFile.wrap(path, bytes);
+        try {
+            LevelFile file = LevelFile.read(path);
+            if (file.difficulty == difficulty && file.seed == seed && file.isReproducible()) return file;
+            System.out.println("Discarding mismatched cached level " + path);
+        } catch (IOException e) {
+            // a miss: generated again below and written over the bad file
+            System.out.println("Discarding unreadable cached level " + path + ": " + e.getMessage());
+        }
+        remove(name);
+        return null;
+    }
+
+    // Index the files left by earlier runs, oldest first
+    private void scan() {
+        if (scanned) return;
+        scanned = true;
+        if (!Files.isDirectory(dir)) return;
+        // partial writes of a killed run
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.tmp")) {
+            for (Path p : stream) delete(p);
+        } catch (IOException e) {
+            // left for the next start
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*.jql")) {
+            for (Path p : stream) files.add(p);
+        } catch (IOException e) {
+            System.out.println("Could not read level cache " + dir + ": " + e.getMessage());
+            return;
+        }
+        Map<Path, FileTime> times = new LinkedHashMap<>();
+        for (Path p : files) {
+            try {
+                times.put(p, Files.getLastModifiedTime(p));
+            } catch (IOException e) {
+                times.put(p, FileTime.fromMillis(0));
+            }
+        }
+        files.sort(Comparator.comparing(times::get));
+        for (Path p : files) {
+            try {
+                long size = Files.size(p);
+                entries.put(p.getFileName().toString(), size);
+                totalBytes += size;
+            } catch (IOException e) {
+                // vanished since listing
+            }
+        }
+        evict();
+    }
+
+    private void store(String name, ByteBuffer buffer) {
+        byte[] bytes = buffer.array();
+        Long old = entries.put(name, (long) bytes.length);
+        if (old != null) totalBytes -= old;
+        totalBytes += bytes.length;
+        pending.put(name, buffer);
+        Path path = dir.resolve(name);
+        IO.execute(() -> {
+            try {
+                Files.createDirectories(dir);
+                // write then rename, so a crash never leaves a partial level behind
+                Path tmp = Files.createTempFile(dir, name, ".tmp");
+                Files.write(tmp, bytes);
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.out.println("Could not write cached level " + path + ": " + e.getMessage());
+            }
+            synchronized (this) {
+                pending.remove(name, buffer);
+            }
+        });
+        evict();
+    }
+
+    // Drop least recently used levels until the cache fits; the newest one always stays
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && entries.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            pending.remove(eldest.getKey());
+            totalBytes -= eldest.getValue();
+            evictions++;
+            delete(dir.resolve(eldest.getKey()));
+        }
+    }
+
+    private void remove(String name) {
+        Long size = entries.remove(name);
+        if (size != null) totalBytes -= size;
+        pending.remove(name);
+        delete(dir.resolve(name));
+    }
+
+    private static void delete(Path path) {
+        IO.execute(() -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.out.println("Could not delete cached level " + path + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private static void touch(Path path) {
+        IO.execute(() -> {
+            try {
+                Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            } catch (IOException e) {
+                // recency is only lost across restarts
+            }
+        });
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /** Fraction of lookups served from the cache (0 before the first). */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Time to read a cached level. */
+    public LatencyHistogram getHitNanos() {
+        return hitNanos;
+    }
+
+    /** Time to generate and bake a missing level. */
+    public LatencyHistogram getMissNanos() {
+        return missNanos;
+    }
+
+    /**
+     * Wait for queued background writes and deletions.
+     */
+    public static void flush() {
+        CompletableFuture.runAsync(() -> { }, IO).join();
+    }
+
+    public void printReport() {
+        System.out.printf("  level cache: %d levels, %d KB, %d hits / %d misses (%.0f%%), %d evicted%n",
+                size(), getTotalBytes() / 1024, getHits(), getMisses(), 100 * getHitRate(), getEvictions());
+        System.out.printf("  hit  p50 %.2f ms  max %.2f ms%n", hitNanos.getPercentile(50) / 1e6, hitNanos.getMax() / 1e6);
+        System.out.printf("  miss p50 %.2f ms  max %.2f ms%n", missNanos.getPercentile(50) / 1e6,
+                missNanos.getMax() / 1e6);
+    }
+}
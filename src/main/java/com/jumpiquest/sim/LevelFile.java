@@ -0,0 +1,320 @@
+package com.jumpiquest.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Binary level format, split into fixed-width chunks along X so a level of
+ * any length can be memory-mapped and decoded a chunk at a time near the
+ * player ({@link LevelModel#load}).
+ *
+ * Layout, big-endian:
+ * <pre>
+ * header (80 bytes)
+ *   int    magic "JQLV"      short version   byte difficulty   byte generator version
+ *   long   seed              double chunk width
+ *   int    level width       int    chunk count
+ *   double house x, y, w, h (NaN = no house)
+ *   double end x, end y
+ * directory: per chunk (24 bytes)
+ *   int data offset, int platforms, int holes, int walls, int food, int spawners
+ * chunk data: packed records, in this order
+ *   platform  double x, w
+ *   hole      double x, w
+ *   wall      double x, w, h     int variant
+ *   food      double x, y        int variant, value
+ *   spawner   double x, y, wrapX int variant      (an animal)
+ * </pre>
+ * Every record belongs to the chunk containing its X. Coordinates are kept
+ * as doubles so a baked level is exactly the generated one.
+ *
+ * The generator version is {@link LevelModel#GENERATOR_VERSION} at baking
+ * time (0 in older files): a file of the current generator at the default
+ * width can be baked again from its seed, byte for byte.
+ */
+public final class LevelFile {
+    public static final int VERSION = 1;
+    static final int MAGIC = 0x4A514C56; // "JQLV"
+    static final int HEADER_BYTES = 80;
+    static final int DIRECTORY_ENTRY_BYTES = 24;
+    static final int PLATFORM_BYTES = 16, HOLE_BYTES = 16, WALL_BYTES = 28, FOOD_BYTES = 24, SPAWNER_BYTES = 28;
+    // directory entry fields after the data offset (see maxInWindow)
+    static final int PLATFORMS = 1, HOLES = 2, WALLS = 3, FOOD = 4, SPAWNERS = 5;
+
+    private final Path file;
+    private final ByteBuffer data;
+    public final GameSettings.Difficulty difficulty;
+    public final int generatorVersion;
+    public final long seed;
+    public final double chunkWidth;
+    public final int levelWidth;
+    private final int chunkCount;
+    private final HouseModel house;
+    public final double endX, endY;
+
+    private LevelFile(Path file, ByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a level file: " + file);
+        }
+        int version = data.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported level file version " + version + ": " + file);
+        }
+        GameSettings.Difficulty[] difficulties = GameSettings.Difficulty.values();
+        int ordinal = data.get(6);
+        if (ordinal < 0 || ordinal >= difficulties.length) {
+            throw new IOException("Unknown difficulty " + ordinal + " in level file: " + file);
+        }
+        difficulty = difficulties[ordinal];
+        generatorVersion = data.get(7) & 0xFF;
+        seed = data.getLong(8);
+        chunkWidth = data.getDouble(16);
+        levelWidth = data.getInt(24);
+        chunkCount = data.getInt(28);
+        double hx = data.getDouble(32);
+        house = Double.isNaN(hx) ? null
+                : new HouseModel(hx, data.getDouble(40), data.getDouble(48), data.getDouble(56));
+        endX = data.getDouble(64);
+        endY = data.getDouble(72);
+        if (!(chunkWidth > 0) || chunkCount < 0
+                || data.capacity() < HEADER_BYTES + (long) chunkCount * DIRECTORY_ENTRY_BYTES) {
+            throw new IOException("Truncated level file: " + file);
+        }
+        // decodeChunk trusts the directory: check every chunk's records are in the file
+        for (int c = 0; c < chunkCount; c++) {
+            int entry = HEADER_BYTES + c * DIRECTORY_ENTRY_BYTES;
+            long offset = data.getInt(entry);
+            long platforms = data.getInt(entry + 4), holes = data.getInt(entry + 8), walls = data.getInt(entry + 12);
+            long food = data.getInt(entry + 16), spawners = data.getInt(entry + 20);
+            if (offset < 0 || platforms < 0 || holes < 0 || walls < 0 || food < 0 || spawners < 0
+                    || offset + platforms * PLATFORM_BYTES + holes * HOLE_BYTES + walls * WALL_BYTES
+                            + food * FOOD_BYTES + spawners * SPAWNER_BYTES > data.capacity()) {
+                throw new IOException("Corrupt directory entry for chunk " + c + " in level file: " + file);
+            }
+        }
+    }
+
+    /**
+     * Memory-map a level file. Only the header is read here; chunk records
+     * are decoded on demand.
+     */
+    public static LevelFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new LevelFile(file, map);
+        }
+    }
+
+    /**
+     * Read a level file into memory. Nothing stays mapped, so the file can be
+     * replaced or deleted while the level plays, on any platform.
+     */
+    public static LevelFile read(Path file) throws IOException {
+        return new LevelFile(file, ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    /**
+     * Bake a generated level in memory, without writing a file.
+     */
+    public static LevelFile bake(LevelModel level) {
+        return wrap(null, encode(level, LevelModel.CHUNK_WIDTH));
+    }
+
+    /**
+     * A level file over bytes produced by {@link #encode}.
+     */
+    static LevelFile wrap(Path file, ByteBuffer data) {
+        try {
+            return new LevelFile(file, data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid level encoding", e);
+        }
+    }
+
+    /**
+     * The mapped file, or null for a level baked in memory.
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * True if baking LevelModel.seeded(difficulty, seed) today gives this
+     * level again (replays of it can be checked from the seed alone).
+     */
+    public boolean isReproducible() {
+        return generatorVersion == LevelModel.GENERATOR_VERSION
+                && levelWidth == LevelModel.defaultWidth(difficulty)
+                && chunkWidth == LevelModel.CHUNK_WIDTH;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public HouseModel getHouse() {
+        return house;
+    }
+
+    /**
+     * Most records of one kind (PLATFORMS .. SPAWNERS) in any run of window
+     * consecutive chunks; all of them if window covers the file.
+     */
+    int maxInWindow(int field, int window) {
+        int max = 0, sum = 0;
+        for (int c = 0; c < chunkCount; c++) {
+            sum += count(c, field);
+            if (c >= window) sum -= count(c - window, field);
+            max = Math.max(max, sum);
+        }
+        return max;
+    }
+
+    private int count(int chunk, int field) {
+        return data.getInt(HEADER_BYTES + chunk * DIRECTORY_ENTRY_BYTES + 4 * field);
+    }
+
+    /**
+     * Add the terrain and food of one chunk to level. Spawners are decoded
+     * by {@link #decodeSpawners}.
+     */
+    void decodeChunk(int chunk, LevelModel level) {
+        int entry = HEADER_BYTES + chunk * DIRECTORY_ENTRY_BYTES;
+        int p = data.getInt(entry);
+        int platforms = data.getInt(entry + 4);
+        int holes = data.getInt(entry + 8);
+        int walls = data.getInt(entry + 12);
+        int food = data.getInt(entry + 16);
+        // absolute reads: the mapped buffer is shared and never repositioned
+        for (int i = 0; i < platforms; i++, p += PLATFORM_BYTES) {
+            level.addPlatform(data.getDouble(p), data.getDouble(p + 8));
+        }
+        for (int i = 0; i < holes; i++, p += HOLE_BYTES) {
+            level.addHole(data.getDouble(p), data.getDouble(p + 8));
+        }
+        for (int i = 0; i < walls; i++, p += WALL_BYTES) {
+            level.addWall(data.getDouble(p), data.getDouble(p + 8), data.getDouble(p + 16), data.getInt(p + 24));
+        }
+        for (int i = 0; i < food; i++, p += FOOD_BYTES) {
+            level.spawnFood(data.getDouble(p), data.getDouble(p + 8), data.getInt(p + 16), data.getInt(p + 20));
+        }
+    }
+
+    /**
+     * Add the animal of every spawner in the file to level, in file order.
+     * Animals move and wrap to the end of the level from the first step, so
+     * they are all created at load, as in the generated level.
+     */
+    void decodeSpawners(LevelModel level) {
+        for (int c = 0; c < chunkCount; c++) {
+            int entry = HEADER_BYTES + c * DIRECTORY_ENTRY_BYTES;
+            // spawners come after the chunk's other records
+            int p = data.getInt(entry) + count(c, PLATFORMS) * PLATFORM_BYTES + count(c, HOLES) * HOLE_BYTES
+                    + count(c, WALLS) * WALL_BYTES + count(c, FOOD) * FOOD_BYTES;
+            for (int i = 0, n = count(c, SPAWNERS); i < n; i++, p += SPAWNER_BYTES) {
+                level.spawnAnimal(data.getDouble(p), data.getDouble(p + 8), data.getDouble(p + 16),
+                        data.getInt(p + 24));
+            }
+        }
+    }
+
+    /**
+     * Bake a generated fixed-length level into a level file.
+     */
+    public static void write(LevelModel level, double chunkWidth, Path file) throws IOException {
+        ByteBuffer out = encode(level, chunkWidth);
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Files.write(file, out.array());
+    }
+
+    /**
+     * Encode a generated fixed-length level; the returned buffer is a heap
+     * buffer holding exactly the file contents.
+     */
+    static ByteBuffer encode(LevelModel level, double chunkWidth) {
+        if (level.isEndless()) throw new IllegalArgumentException("Endless levels have no end to bake");
+        int chunkCount = Math.max(1, (int) Math.ceil(level.levelWidth / chunkWidth));
+        List<List<ObstacleModel>> platforms = buckets(chunkCount);
+        List<List<ObstacleModel>> holes = buckets(chunkCount);
+        List<List<ObstacleModel>> walls = buckets(chunkCount);
+        for (ObstacleModel o : level.platforms) platforms.get(chunkOf(o.x, chunkWidth, chunkCount)).add(o);
+        for (ObstacleModel o : level.obstacles) {
+            if (o.type == ObstacleModel.Type.HOLE) holes.get(chunkOf(o.x, chunkWidth, chunkCount)).add(o);
+            else if (o.type == ObstacleModel.Type.WALL) walls.get(chunkOf(o.x, chunkWidth, chunkCount)).add(o);
+        }
+        EntityStore e = level.entities;
+        List<IntList> food = new ArrayList<>(), spawners = new ArrayList<>();
+        for (int c = 0; c < chunkCount; c++) {
+            food.add(new IntList());
+            spawners.add(new IntList());
+        }
+        for (int i = 0; i < e.size(); i++) {
+            int c = chunkOf(e.x[i], chunkWidth, chunkCount);
+            if (e.kind[i] == EntityKind.FOOD.ordinal()) food.get(c).add(i);
+            else if (e.kind[i] == EntityKind.ANIMAL.ordinal()) spawners.get(c).add(i);
+        }
+
+        int size = HEADER_BYTES + chunkCount * DIRECTORY_ENTRY_BYTES;
+        for (int c = 0; c < chunkCount; c++) {
+            size += platforms.get(c).size() * PLATFORM_BYTES + holes.get(c).size() * HOLE_BYTES
+                    + walls.get(c).size() * WALL_BYTES + food.get(c).size() * FOOD_BYTES
+                    + spawners.get(c).size() * SPAWNER_BYTES;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.putInt(MAGIC).putShort((short) VERSION).put((byte) level.difficulty.ordinal())
+                .put((byte) LevelModel.GENERATOR_VERSION);
+        out.putLong(level.getSeed()).putDouble(chunkWidth);
+        out.putInt(level.levelWidth).putInt(chunkCount);
+        HouseModel h = level.house;
+        out.putDouble(h != null ? h.x : Double.NaN).putDouble(h != null ? h.y : Double.NaN)
+                .putDouble(h != null ? h.width : Double.NaN).putDouble(h != null ? h.height : Double.NaN);
+        out.putDouble(level.endX).putDouble(level.endY);
+
+        int offset = HEADER_BYTES + chunkCount * DIRECTORY_ENTRY_BYTES;
+        for (int c = 0; c < chunkCount; c++) {
+            out.putInt(offset).putInt(platforms.get(c).size()).putInt(holes.get(c).size())
+                    .putInt(walls.get(c).size()).putInt(food.get(c).size()).putInt(spawners.get(c).size());
+            offset += platforms.get(c).size() * PLATFORM_BYTES + holes.get(c).size() * HOLE_BYTES
+                    + walls.get(c).size() * WALL_BYTES + food.get(c).size() * FOOD_BYTES
+                    + spawners.get(c).size() * SPAWNER_BYTES;
+        }
+        for (int c = 0; c < chunkCount; c++) {
+            for (ObstacleModel o : platforms.get(c)) out.putDouble(o.x).putDouble(o.w);
+            for (ObstacleModel o : holes.get(c)) out.putDouble(o.x).putDouble(o.w);
+            for (ObstacleModel o : walls.get(c)) out.putDouble(o.x).putDouble(o.w).putDouble(o.h).putInt(o.variant);
+            IntList f = food.get(c);
+            for (int k = 0; k < f.size(); k++) {
+                int i = f.get(k);
+                out.putDouble(e.x[i]).putDouble(e.y[i]).putInt(e.variant[i]).putInt(e.value[i]);
+            }
+            IntList s = spawners.get(c);
+            for (int k = 0; k < s.size(); k++) {
+                int i = s.get(k);
+                out.putDouble(e.x[i]).putDouble(e.y[i]).putDouble(e.wrapX[i]).putInt(e.variant[i]);
+            }
+        }
+        return out.flip();
+    }
+
+    private static int chunkOf(double x, double chunkWidth, int chunkCount) {
+        return Math.max(0, Math.min(chunkCount - 1, (int) Math.floor(x / chunkWidth)));
+    }
+
+    private static List<List<ObstacleModel>> buckets(int count) {
+        List<List<ObstacleModel>> lists = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) lists.add(new ArrayList<>());
+        return lists;
+    }
+}
@@ -0,0 +1,903 @@
+package com.jumpiquest.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Procedurally generated level: platforms, holes, walls, food, animals and the
+ * end house, plus the hole and wall collision queries used by the physics.
+ * Holds no JavaFX types so it can run headless; engine.Level renders it.
+ *
+ * Holes and walls are indexed by X in {@link IntervalIndex}es, so collision
+ * queries cost the same however long the level is. Animals and food are
+ * entities of one {@link EntityStore}, updated by the simulation's systems.
+ *
+ * In endless mode ({@link #endless}) the level has no end: it is generated in
+ * fixed-width chunks ahead of the player by {@link #stream}, chunks behind the
+ * last checkpoint are dropped, and the generation parameters ramp up with
+ * every chunk. Levels baked to a {@link LevelFile} stream the same way: the
+ * file is memory-mapped and only the chunks near the player are decoded
+ * ({@link #load}). They play exactly like the generated level: animals move
+ * and wrap from the first step, so every spawner is decoded at load and
+ * stays, and a file short enough to fit the stream window (every
+ * fixed-length level) is decoded whole at load, giving the generated
+ * level's entities in the generated order. Longer files stream and drop
+ * terrain and food behind the checkpoint, like endless levels.
+ *
+ * Every random decision comes from the level's {@link #getSeed seed}, split
+ * into one {@link SplittableRandom} stream per subsystem (terrain, animals,
+ * food, entity movement): the same seed and difficulty always give the same
+ * level and the same entity behaviour, and a change in how one subsystem
+ * draws numbers does not reshuffle the others.
+ */
+public class LevelModel {
+    // Number of sprite variants the renderers provide for each entity kind
+    public static final int WALL_VARIANTS = 3;
+    public static final int FOOD_VARIANTS = 9;
+    public static final int ANIMAL_VARIANTS = 3;
+    // Animal hitbox and speed (sliding left)
+    public static final double ANIMAL_W = 100;
+    public static final double ANIMAL_H = 80;
+    public static final double ANIMAL_SPEED = 140.0;
+    // Food size (64x64) and points awarded when collected
+    public static final double FOOD_SIZE = 64;
+    public static final int FOOD_VALUE = 10;
+
+    // Endless mode: width of a generated chunk
+    public static final double CHUNK_WIDTH = 2000.0;
+    // bump whenever a seed would generate a different level, so cached and
+    // baked levels of an older generator are not mistaken for the new ones
+    public static final int GENERATOR_VERSION = 1;
+    // keep at least this much level generated beyond the player
+    private static final double GENERATE_AHEAD = 2 * CHUNK_WIDTH;
+    // chunks over which endless difficulty ramps up to its maximum
+    private static final int RAMP_CHUNKS = 40;
+    // longest hole the player can still clear with a running jump
+    private static final double MAX_JUMPABLE_HOLE = 165.0;
+    // endless platforms shrink by up to this fraction over the ramp
+    private static final double PLATFORM_SHRINK = 0.25;
+    // animals per endless chunk, at the start and at the end of the ramp
+    private static final int MIN_CHUNK_ANIMALS = 2, MAX_CHUNK_ANIMALS = 4;
+
+    public final ArrayList<ObstacleModel> obstacles = new ArrayList<>();
+    // Dynamic entities (animals, food), stored as dense component arrays
+    public final EntityStore entities = new EntityStore();
+    public final ArrayList<ObstacleModel> platforms = new ArrayList<>();
+    public final ArrayList<ObstacleModel> walls = new ArrayList<>();
+    public final GameSettings.Difficulty difficulty;
+    private final boolean endless;
+    private final long seed;
+    // Baked level the chunks are decoded from (null = generated)
+    private final LevelFile source;
+    private final double chunkWidth;
+    // Per-subsystem random streams, split from the seed on every (re)generation
+    private SplittableRandom terrainRandom, animalRandom, foodRandom, movementRandom;
+    public int levelWidth; // dynamically set based on difficulty
+    public final int levelHeight = 720;
+    public double startX, startY;
+    public double endX, endY;
+    public HouseModel house = null;
+    private final double groundY = 500;
+
+    // Spatial indexes over world X (rebuilt by generateLevel)
+    private final IntervalIndex<ObstacleModel> holeIndex = new IntervalIndex<>();
+    private final IntervalIndex<ObstacleModel> wallIndex = new IntervalIndex<>();
+    // scratch list for wall queries (the model is stepped by a single thread)
+    private final List<ObstacleModel> wallScratch = new ArrayList<>(16);
+    private final List<ObstacleModel> holeScratch = new ArrayList<>(16);
+    // obstacles of dropped chunks, reused for the next chunks so streaming does not allocate
+    private final ArrayList<ObstacleModel> spareObstacles = new ArrayList<>();
+    // holes and walls a streamed level reserves room for (0 = not streamed)
+    private int obstacleCapacity = 0;
+
+    // Endless streaming state
+    // bumped whenever obstacles changes, so renderers know to copy it again
+    private int obstacleVersion = 0;
+    private int chunksGenerated = 0;
+    private double cursorX = 0; // where the next platform segment starts
+    private double generatedUntilX = 0; // right edge of the last generated chunk
+    private double droppedUntilX = 0; // everything ending before this was dropped
+    private boolean dropsBehind = false; // false: streamed chunks are kept
+    public final double spawnX = 100;
+    public final double spawnY = groundY - 80; // player height 60
+
+    // Generation parameters (initialized per difficulty)
+    private double platformMin = 250, platformMax = 500;
+    private double holeMin = 50, holeMax = 140;
+    private double holeSpawnChance = 0.8; // probability to spawn a hole after platform
+    private double wallChance = 0.55;
+    private double wallHMin = 40, wallHMax = 90;
+    private double gapShortMin = 30, gapShortMax = 60;
+    private double gapMediumMin = 60, gapMediumMax = 100;
+    private double gapLongMin = 100, gapLongMax = 140;
+
+    /**
+     * Generate a level from a fresh random seed.
+     */
+    public LevelModel(GameSettings.Difficulty difficulty) {
+        this(difficulty, defaultWidth(difficulty));
+    }
+
+    /**
+     * Generate a level with an explicit width (stress tests, benchmarks)
+     * from a fresh random seed.
+     */
+    public LevelModel(GameSettings.Difficulty difficulty, int levelWidth) {
+        this(difficulty, levelWidth, newSeed());
+    }
+
+    /**
+     * Generate a level with an explicit width from the given seed.
+     */
+    public LevelModel(GameSettings.Difficulty difficulty, int levelWidth, long seed) {
+        this(difficulty, levelWidth, seed, false);
+    }
+
+    private LevelModel(GameSettings.Difficulty difficulty, int levelWidth, long seed, boolean endless) {
+        this.difficulty = difficulty;
+        this.levelWidth = levelWidth;
+        this.seed = seed;
+        this.endless = endless;
+        this.source = null;
+        this.chunkWidth = CHUNK_WIDTH;
+
+        // Initialize generation parameters according to difficulty
+        initDifficultySettings(difficulty);
+
+        // generate the level procedurally
+        generateLevel();
+    }
+
+    private LevelModel(LevelFile file) {
+        this.difficulty = file.difficulty;
+        this.levelWidth = file.levelWidth;
+        this.seed = file.seed;
+        this.endless = false;
+        this.source = file;
+        this.chunkWidth = file.chunkWidth;
+        initDifficultySettings(difficulty);
+        generateLevel();
+    }
+
+    /**
+     * A level streamed from a baked, memory-mapped level file: chunks are
+     * decoded as the player approaches them and dropped behind the last
+     * checkpoint, like an endless level.
+     */
+    public static LevelModel load(LevelFile file) {
+        return new LevelModel(file);
+    }
+
+    /**
+     * Create an endless level streamed in chunks, starting with the given
+     * difficulty's parameters.
+     */
+    public static LevelModel endless(GameSettings.Difficulty difficulty) {
+        return endless(difficulty, newSeed());
+    }
+
+    /**
+     * Create an endless level streamed from the given seed.
+     */
+    public static LevelModel endless(GameSettings.Difficulty difficulty, long seed) {
+        return new LevelModel(difficulty, 0, seed, true);
+    }
+
+    /**
+     * Create the difficulty's fixed-length level for the given seed.
+     */
+    public static LevelModel seeded(GameSettings.Difficulty difficulty, long seed) {
+        return new LevelModel(difficulty, defaultWidth(difficulty), seed);
+    }
+
+    /**
+     * The difficulty's fixed-length level for the given seed, baked to the
+     * chunked level format in memory and streamed from it, exactly as the
+     * same level read back from the level cache plays.
+     */
+    public static LevelModel baked(GameSettings.Difficulty difficulty, long seed) {
+        return load(LevelFile.bake(seeded(difficulty, seed)));
+    }
+
+    /**
+     * A fresh seed for an unseeded level.
+     */
+    public static long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Restart every random stream from the seed.
+     */
+    private void splitStreams() {
+        SplittableRandom root = new SplittableRandom(seed);
+        terrainRandom = root.split();
+        animalRandom = root.split();
+        foodRandom = root.split();
+        movementRandom = root.split();
+    }
+
+    /**
+     * Random stream for entity behaviour while the game runs (respawn offsets).
+     */
+    SplittableRandom movementRandom() {
+        return movementRandom;
+    }
+
+    /**
+     * Level width based on difficulty.
+     */
+    public static int defaultWidth(GameSettings.Difficulty difficulty) {
+        if (difficulty == GameSettings.Difficulty.FACILE) return 5000;
+        if (difficulty == GameSettings.Difficulty.DIFFICILE) return 8000;
+        return 6000; // MOYEN
+    }
+
+    /**
+     * Procedurally generate platforms, holes and walls across the horizontal level.
+     * Populates `platforms`, `walls` and `obstacles` (obstacles holds walls + holes
+     * for compatibility with existing collision code).
+     */
+    public void generateLevel() {
+        splitStreams();
+        obstacleVersion++;
+        if (endless || source != null) {
+            resetStream();
+            return;
+        }
+        platforms.clear();
+        walls.clear();
+        obstacles.clear();
+        entities.clear();
+
+        startX = spawnX;
+        startY = spawnY;
+        endX = levelWidth - 100;
+        endY = groundY - 60;
+
+        double currentX = 0.0;
+        SplittableRandom rnd = terrainRandom;
+
+        // Safe zone: last N pixels of the level where no hazards/items should spawn
+        final double safeZoneLength = 600.0;
+        final double startSafeZoneX = Math.max(0, levelWidth - safeZoneLength);
+
+        // generation parameters already initialized by initDifficultySettings in constructor
+
+        while (currentX < levelWidth) {
+            // If we are within the final safe zone, create a final platform to the end and stop
+            double remaining = levelWidth - currentX;
+            if (remaining <= safeZoneLength) {
+                double finalLen = Math.max(0, remaining);
+                if (finalLen > 0) {
+                    platforms.add(obstacle(ObstacleModel.Type.PLATFORM, currentX, finalLen, 0, 0));
+                }
+                break; // no more obstacles in safe zone
+            }
+
+            currentX = placeSegment(currentX, levelWidth, startSafeZoneX, rnd);
+        }
+
+        // Generate mobile obstacles at specific positions (avoid safe zone)
+        generateAnimals(startSafeZoneX);
+
+        // Generate food items along the level
+        generateFoodItems(startSafeZoneX);
+
+        // place an end-house at a fixed X based on difficulty (so it's always at the intended world coordinate)
+        double houseW = 550;
+        double houseH = 350;
+        double targetX;
+        if (difficulty == GameSettings.Difficulty.FACILE) targetX = 5000;
+        else if (difficulty == GameSettings.Difficulty.DIFFICILE) targetX = 8000;
+        else targetX = 6000; // MOYEN
+        // clamp so house fits inside level bounds
+        double hx = Math.max(0, Math.min(targetX, levelWidth - (houseW + 20)));
+        double hy = groundY - houseH;
+        house = new HouseModel(hx, hy, houseW, houseH);
+        // set end position near house center so legacy checks work
+        endX = hx + houseW / 9.0;
+        endY = hy;
+
+        buildIndexes();
+    }
+
+    /**
+     * Place one platform starting at currentX, optionally followed by a hole and
+     * with an optional wall on it, using the current generation parameters.
+     * @param limitX level end; platforms and holes are clamped to it
+     * @param startSafeZoneX no holes or walls are placed at or beyond this X
+     * @return X where the next segment starts
+     */
+    private double placeSegment(double currentX, double limitX, double startSafeZoneX, SplittableRandom rnd) {
+        // create a platform segment
+        double platformLen = rnd.nextDouble(platformMin, platformMax);
+        if (currentX + platformLen > limitX) {
+            platformLen = limitX - currentX;
+        }
+        platforms.add(obstacle(ObstacleModel.Type.PLATFORM, currentX, platformLen, 0, 0));
+
+        // choose a hole size with adaptive spawn chance
+        double holeSize = 0;
+        double holeX = currentX + platformLen;
+
+        // Only spawn hole if random chance passes and hole start is not in final safe zone
+        if (rnd.nextDouble() < holeSpawnChance && holeX < startSafeZoneX) {
+            holeSize = rnd.nextDouble(holeMin, holeMax);
+            // if the hole would exceed level, clamp
+            if (holeX >= limitX) {
+                holeSize = 0;
+            } else if (holeX + holeSize > limitX) {
+                holeSize = Math.max(0, limitX - holeX);
+            }
+
+            if (holeSize > 0) {
+                obstacles.add(obstacle(ObstacleModel.Type.HOLE, holeX, holeSize, 0, 0));
+            }
+        }
+
+        // optionally place a wall somewhere on the platform we just created
+        // avoid placing walls in the final safe zone
+        if (platformLen > 140 && rnd.nextDouble() < wallChance) {
+            double wallW = 60; // hitbox width (small for jumping)
+            double wallH = 60; // hitbox height (small for jumping)
+            double minX = currentX + Math.max(60, platformLen * 0.15);
+            double maxX = currentX + Math.max(60, platformLen - Math.max(60, platformLen * 0.15));
+            if (minX < maxX) {
+                double wallX = rnd.nextDouble(minX, maxX);
+                // skip wall placement if it would be inside final safe zone
+                if (wallX < startSafeZoneX) {
+                    ObstacleModel wall = obstacle(ObstacleModel.Type.WALL, wallX, wallW, wallH,
+                            rnd.nextInt(WALL_VARIANTS));
+                    walls.add(wall);
+                    obstacles.add(wall);
+                }
+            }
+        }
+
+        // advance currentX with variable gaps
+        double gapShort = rnd.nextDouble(gapShortMin, gapShortMax);
+        double gapMedium = rnd.nextDouble(gapMediumMin, gapMediumMax);
+        double gapLong = rnd.nextDouble(gapLongMin, gapLongMax);
+        int gapKind = rnd.nextInt(3);
+        double extraGap = (gapKind == 0) ? gapShort : (gapKind == 1 ? gapMedium : gapLong);
+
+        return holeX + holeSize + extraGap;
+    }
+
+    private void buildIndexes() {
+        holeIndex.clear();
+        wallIndex.clear();
+        for (ObstacleModel o : obstacles) {
+            if (o.type == ObstacleModel.Type.HOLE) holeIndex.add(o.x, o.x + o.w, o);
+            else if (o.type == ObstacleModel.Type.WALL) wallIndex.add(o.x, o.x + o.w, o);
+        }
+    }
+
+    private void generateAnimals(double startSafeZoneX) {
+        SplittableRandom rnd = animalRandom;
+        double[] positions = {1200, 2000, 3000, 4000, 5200, 6500, 7200};
+        double mobileY = groundY - 40; // ground level for mobile obstacles (40 is their height)
+
+        for (double pos : positions) {
+            // avoid spawning mobile obstacles inside the final safe zone
+            if (pos < startSafeZoneX && pos < levelWidth) {
+                spawnAnimal(pos, mobileY, levelWidth, rnd.nextInt(ANIMAL_VARIANTS));
+            }
+        }
+    }
+
+    /**
+     * Add an animal on the ground at x that respawns past the level end
+     * (stress scenes, benchmarks).
+     */
+    public void addAnimal(double x, int variant) {
+        spawnAnimal(x, groundY - 40, levelWidth, variant);
+    }
+
+    // an animal is a moving, wrapping hazard
+    void spawnAnimal(double x, double y, double wrapX, int variant) {
+        entities.add(EntityKind.ANIMAL, EntityStore.MOVES | EntityStore.WRAPS | EntityStore.HAZARD,
+                x, y, ANIMAL_W, ANIMAL_H, -ANIMAL_SPEED, wrapX, variant, 0);
+    }
+
+    // food is a static pickup
+    private void spawnFood(double x, double y, int variant) {
+        spawnFood(x, y, variant, FOOD_VALUE);
+    }
+
+    void spawnFood(double x, double y, int variant, int value) {
+        entities.add(EntityKind.FOOD, EntityStore.PICKUP, x, y, FOOD_SIZE, FOOD_SIZE, 0, 0, variant, value);
+    }
+
+    private void generateFoodItems(double startSafeZoneX) {
+        SplittableRandom rnd = foodRandom;
+
+        int foodCount = foodCount(difficulty);
+
+        // Generate food items at regular intervals with slight randomness
+        double spacing = (double) levelWidth / foodCount;
+        for (int i = 0; i < foodCount; i++) {
+            double baseX = spacing * i + 200; // start at 200 to avoid immediate spawn
+            double foodX = baseX + rnd.nextDouble(-80, 80); // randomize position within ±80px
+
+            // Clamp to level bounds
+            foodX = Math.max(100, Math.min(levelWidth - 50, foodX));
+
+            // do not place food inside final safe zone
+            if (foodX >= startSafeZoneX) continue;
+
+            // Randomize Y position: slightly above ground or on platforms
+            double foodY = groundY - 30 - rnd.nextDouble(0, 100); // between -30 and -130 from ground
+
+            spawnFood(foodX, foodY, rnd.nextInt(FOOD_VARIANTS));
+        }
+    }
+
+    /**
+     * Number of food items per level based on difficulty.
+     */
+    private static int foodCount(GameSettings.Difficulty difficulty) {
+        if (difficulty == GameSettings.Difficulty.FACILE) return 20; // more items for easy mode
+        if (difficulty == GameSettings.Difficulty.DIFFICILE) return 12; // fewer items for hard mode
+        return 15; // default for MOYEN
+    }
+
+    // --- Endless streaming ---
+
+    public boolean isEndless() {
+        return endless;
+    }
+
+    /**
+     * The level file this level is streamed from, or null if it is generated.
+     */
+    public LevelFile getSource() {
+        return source;
+    }
+
+    /**
+     * Changes whenever obstacles is regenerated or chunks are streamed in or
+     * out of it.
+     */
+    public int getObstacleVersion() {
+        return obstacleVersion;
+    }
+
+    /**
+     * Holes and walls a streamed level reserved room for in obstacles (0 for
+     * generated fixed-length levels), to size copies of it.
+     */
+    public int getObstacleCapacity() {
+        return obstacleCapacity;
+    }
+
+    public int getChunksGenerated() {
+        return chunksGenerated;
+    }
+
+    private void resetStream() {
+        // a restarted stream reuses its obstacles (walls are in obstacles too)
+        spareObstacles.addAll(platforms);
+        spareObstacles.addAll(obstacles);
+        platforms.clear();
+        walls.clear();
+        obstacles.clear();
+        entities.clear();
+        holeIndex.clear();
+        wallIndex.clear();
+        startX = spawnX;
+        startY = spawnY;
+        if (source != null) {
+            house = source.getHouse();
+            endX = source.endX;
+            endY = source.endY;
+            levelWidth = source.levelWidth;
+        } else {
+            house = null;
+            // no end position: the run only ends when the player loses
+            endX = Double.MAX_VALUE;
+            endY = groundY - 60;
+            levelWidth = 0;
+        }
+        chunksGenerated = 0;
+        cursorX = 0;
+        generatedUntilX = 0;
+        droppedUntilX = 0;
+        dropsBehind = source == null || source.getChunkCount() > windowChunks();
+        reserveWindow();
+        if (source != null) {
+            // before any food, so animals have the indexes they have when generated
+            source.decodeSpawners(this);
+            // a file that fits the window is decoded whole, in the generated order
+            while (!dropsBehind && chunksGenerated < source.getChunkCount()) loadChunk();
+        }
+        stream(spawnX, spawnX);
+    }
+
+    /**
+     * Size the obstacle lists and indexes, the entity store and the spare
+     * obstacle pool for the most a streamed level can hold at once, so
+     * streaming allocates nothing, not even while the first chunks grow
+     * them. At most: GENERATE_AHEAD past the player, the chunk being added,
+     * the player's chunk and, behind the checkpoint, 100 px plus a chunk and
+     * the chunk being dropped. File levels also hold all their spawners.
+     */
+    private void reserveWindow() {
+        int chunks = windowChunks();
+        int platformCount, holeCount, wallCount, entityCount;
+        if (source != null) {
+            platformCount = source.maxInWindow(LevelFile.PLATFORMS, chunks);
+            holeCount = source.maxInWindow(LevelFile.HOLES, chunks);
+            wallCount = source.maxInWindow(LevelFile.WALLS, chunks);
+            entityCount = source.maxInWindow(LevelFile.FOOD, chunks)
+                    + source.maxInWindow(LevelFile.SPAWNERS, source.getChunkCount());
+        } else {
+            // a segment is at least a fully shrunk platform and a short gap,
+            // with at most one platform, hole and wall; a chunk ends mid-segment
+            initDifficultySettings(difficulty);
+            int segments = chunks * ((int) (CHUNK_WIDTH / (platformMin * (1.0 - PLATFORM_SHRINK) + gapShortMin)) + 1);
+            platformCount = holeCount = wallCount = segments;
+            double spacing = (double) defaultWidth(difficulty) / foodCount(difficulty);
+            entityCount = chunks * (MAX_CHUNK_ANIMALS + (int) Math.ceil(CHUNK_WIDTH / spacing));
+        }
+        platforms.ensureCapacity(platformCount);
+        walls.ensureCapacity(wallCount);
+        obstacles.ensureCapacity(holeCount + wallCount);
+        holeIndex.reserve(holeCount);
+        wallIndex.reserve(wallCount);
+        entities.reserve(entityCount, chunks * chunkWidth);
+        int pool = platformCount + holeCount + wallCount;
+        spareObstacles.ensureCapacity(pool);
+        while (spareObstacles.size() < pool) {
+            spareObstacles.add(new ObstacleModel(ObstacleModel.Type.PLATFORM, 0, 0, 0, 0));
+        }
+        obstacleCapacity = holeCount + wallCount;
+    }
+
+    /**
+     * Most chunks a streamed level holds at once (see reserveWindow).
+     */
+    private int windowChunks() {
+        return (int) Math.ceil(GENERATE_AHEAD / chunkWidth) + 4;
+    }
+
+    /**
+     * Endless and file levels: generate or load chunks until the level extends
+     * GENERATE_AHEAD past playerX and drop chunks that lie more than one chunk
+     * behind the respawn point (100 px behind checkpointX), if the level drops
+     * any. No-op for generated fixed-length levels.
+     */
+    public void stream(double playerX, double checkpointX) {
+        if (!endless && source == null) return;
+        while (generatedUntilX < playerX + GENERATE_AHEAD
+                && (source == null || chunksGenerated < source.getChunkCount())) {
+            if (source != null) loadChunk();
+            else generateChunk();
+        }
+        double keepFrom = checkpointX - 100.0 - chunkWidth;
+        while (dropsBehind && droppedUntilX + chunkWidth <= keepFrom) {
+            dropBefore(droppedUntilX + chunkWidth);
+        }
+    }
+
+    /**
+     * Decode the next chunk of the level file.
+     */
+    private void loadChunk() {
+        source.decodeChunk(chunksGenerated, this);
+        chunksGenerated++;
+        generatedUntilX = chunksGenerated * chunkWidth;
+        obstacleVersion++;
+    }
+
+    // Records decoded from a level file
+
+    void addPlatform(double x, double w) {
+        platforms.add(obstacle(ObstacleModel.Type.PLATFORM, x, w, 0, 0));
+    }
+
+    void addHole(double x, double w) {
+        ObstacleModel hole = obstacle(ObstacleModel.Type.HOLE, x, w, 0, 0);
+        obstacles.add(hole);
+        holeIndex.add(x, x + w, hole);
+    }
+
+    void addWall(double x, double w, double h, int variant) {
+        ObstacleModel wall = obstacle(ObstacleModel.Type.WALL, x, w, h, variant);
+        walls.add(wall);
+        obstacles.add(wall);
+        wallIndex.add(x, x + w, wall);
+    }
+
+    private void generateChunk() {
+        double ramp = applyRamp(chunksGenerated);
+        double chunkStart = generatedUntilX;
+        double chunkEnd = chunkStart + CHUNK_WIDTH;
+        int firstObstacle = obstacles.size();
+
+        // terrain: same segment generator as fixed levels, without an end safe zone
+        while (cursorX < chunkEnd) {
+            cursorX = placeSegment(cursorX, Double.MAX_VALUE, Double.MAX_VALUE, terrainRandom);
+        }
+        for (int i = firstObstacle; i < obstacles.size(); i++) {
+            ObstacleModel o = obstacles.get(i);
+            if (o.type == ObstacleModel.Type.HOLE) holeIndex.add(o.x, o.x + o.w, o);
+            else wallIndex.add(o.x, o.x + o.w, o);
+        }
+
+        // animals: roughly the fixed-level density, more as the run goes on
+        int animalCount = MIN_CHUNK_ANIMALS + (int) Math.round((MAX_CHUNK_ANIMALS - MIN_CHUNK_ANIMALS) * ramp);
+        double mobileY = groundY - 40;
+        for (int i = 0; i < animalCount; i++) {
+            double pos = animalRandom.nextDouble(chunkStart, chunkEnd);
+            int variant = animalRandom.nextInt(ANIMAL_VARIANTS);
+            // same spawn safety as the first fixed-level animal
+            if (pos < 1200) continue;
+            spawnAnimal(pos, mobileY, chunkEnd, variant);
+        }
+
+        // food: same spacing as the difficulty's fixed-length level
+        double spacing = (double) defaultWidth(difficulty) / foodCount(difficulty);
+        for (double baseX = chunkStart + spacing / 2.0; baseX < chunkEnd; baseX += spacing) {
+            double foodX = baseX + foodRandom.nextDouble(-80, 80);
+            double foodY = groundY - 30 - foodRandom.nextDouble(0, 100);
+            int variant = foodRandom.nextInt(FOOD_VARIANTS);
+            if (foodX < 200) continue;
+            spawnFood(foodX, foodY, variant);
+        }
+
+        chunksGenerated++;
+        generatedUntilX = chunkEnd;
+        levelWidth = (int) chunkEnd;
+        obstacleVersion++;
+    }
+
+    /**
+     * Set generation parameters for an endless chunk: the difficulty's base
+     * values, tightened linearly until RAMP_CHUNKS chunks have been generated.
+     * @return ramp amount in [0, 1]
+     */
+    private double applyRamp(int chunk) {
+        initDifficultySettings(difficulty);
+        double ramp = Math.min(1.0, (double) chunk / RAMP_CHUNKS);
+        platformMin *= 1.0 - PLATFORM_SHRINK * ramp;
+        platformMax *= 1.0 - PLATFORM_SHRINK * ramp;
+        holeMax = Math.min(MAX_JUMPABLE_HOLE, holeMax + 30 * ramp);
+        holeMin = Math.min(holeMax - 20, holeMin + 20 * ramp);
+        holeSpawnChance = Math.min(0.95, holeSpawnChance + 0.15 * ramp);
+        wallChance = Math.min(0.90, wallChance + 0.25 * ramp);
+        return ramp;
+    }
+
+    private void dropBefore(double boundary) {
+        // walls are in obstacles too: recycle them from there only
+        dropEndingBefore(platforms, boundary, true);
+        dropEndingBefore(walls, boundary, false);
+        dropEndingBefore(obstacles, boundary, true);
+        holeIndex.removeEndingBefore(boundary);
+        wallIndex.removeEndingBefore(boundary);
+        // a file level's animals wrap to its end, like the generated level's
+        entities.removeEndingBefore(boundary, source != null ? EntityStore.WRAPS : 0);
+        droppedUntilX = boundary;
+        obstacleVersion++;
+    }
+
+    /**
+     * Remove the obstacles of list that end before boundary, keeping the
+     * order of the others, and optionally hand them to the spare pool.
+     */
+    private void dropEndingBefore(List<ObstacleModel> list, double boundary, boolean recycle) {
+        int kept = 0;
+        for (int i = 0; i < list.size(); i++) {
+            ObstacleModel o = list.get(i);
+            if (o.x + o.w >= boundary) {
+                list.set(kept++, o);
+            } else if (recycle) {
+                spareObstacles.add(o);
+            }
+        }
+        while (list.size() > kept) list.remove(list.size() - 1);
+    }
+
+    /**
+     * A spare obstacle from a dropped chunk, or a new one if none is left.
+     */
+    private ObstacleModel obstacle(ObstacleModel.Type type, double x, double w, double h, int variant) {
+        int n = spareObstacles.size();
+        if (n == 0) return new ObstacleModel(type, x, w, h, variant);
+        return spareObstacles.remove(n - 1).set(type, x, w, h, variant);
+    }
+
+    public double getGroundY() {
+        return groundY;
+    }
+
+    public boolean isHoleAt(double centerX) {
+        return holeIndex.findContaining(centerX) != null;
+    }
+
+    /**
+     * Append holes overlapping [minX, maxX] to out, in X order.
+     */
+    public int queryHoles(double minX, double maxX, List<ObstacleModel> out) {
+        return holeIndex.query(minX, maxX, out);
+    }
+
+    /**
+     * First hole, in the direction of travel, that a point moving from fromX
+     * to toX passed over without stopping inside it, or null. Steps of a few
+     * pixels always land inside a hole; a long step (low tick rate) can not.
+     */
+    public ObstacleModel holeCrossed(double fromX, double toX) {
+        List<ObstacleModel> crossed = holeScratch;
+        crossed.clear();
+        holeIndex.query(Math.min(fromX, toX), Math.max(fromX, toX), crossed);
+        ObstacleModel first = null;
+        for (int i = 0; i < crossed.size(); i++) {
+            ObstacleModel o = crossed.get(i);
+            boolean inside = (fromX >= o.x && fromX <= o.x + o.w) || (toX >= o.x && toX <= o.x + o.w);
+            if (inside) continue;
+            // holes come in X order: keep the first one moving right, the last one moving left
+            if (first == null || toX < fromX) first = o;
+        }
+        return first;
+    }
+
+    /**
+     * Append walls overlapping [minX, maxX] to out, in X order.
+     */
+    public int queryWalls(double minX, double maxX, List<ObstacleModel> out) {
+        return wallIndex.query(minX, maxX, out);
+    }
+
+    /**
+     * Append indexes of hazards overlapping [minX, maxX] to out.
+     */
+    public int queryHazards(double minX, double maxX, IntList out) {
+        return entities.query(minX, maxX, EntityStore.HAZARD, out);
+    }
+
+    /**
+     * Append indexes of pickups overlapping [minX, maxX] to out.
+     */
+    public int queryPickups(double minX, double maxX, IntList out) {
+        return entities.query(minX, maxX, EntityStore.PICKUP, out);
+    }
+
+    /**
+     * Remove collected entity i from the level.
+     * @return points it was worth
+     */
+    public int collect(int i) {
+        int points = entities.value[i];
+        entities.remove(i);
+        return points;
+    }
+
+    /**
+     * Push the player out of walls. Besides the overlap at the end of the
+     * step, a step long enough to pass a whole wall (low tick rate) is swept
+     * from where it started and stopped at the first wall on its way.
+     */
+    public void handleWallCollisions(PlayerModel p) {
+        List<ObstacleModel> nearby = wallScratch;
+        nearby.clear();
+        // where the step's run started; push-outs and world bounds are not travel
+        double run = p.getRunX();
+        double originX = p.x - run;
+        // walls crossed during the step, visited in the direction of travel
+        int n = wallIndex.query(p.getHitboxLeft() - Math.max(0, run), p.getHitboxRight() - Math.min(0, run), nearby);
+        for (int k = 0; k < n; k++) {
+            ObstacleModel o = nearby.get(run < 0 ? n - 1 - k : k);
+            // shrink collision hitbox relative to visual hitbox so walls are easier to pass
+            double insetX = o.w * 0.20; // 20% inset on each horizontal side
+            double hitW = Math.max(8, o.w - insetX * 2);
+            double wallLeft = o.x + insetX;
+            double wallRight = wallLeft + hitW;
+            // reduce vertical collision height slightly so small head overlaps don't block
+            double heightInset = o.h * 0.25; // ignore top 25% of wall for collisions
+            double wallTop = groundY - (o.h - heightInset);
+
+            // Use hitbox for collision detection instead of full sprite dimensions
+            double hitboxLeft = p.getHitboxLeft();
+            double hitboxRight = p.getHitboxRight();
+            double hitboxTop = p.getHitboxTop();
+            double hitboxBottom = p.getHitboxBottom();
+
+            if (hitboxBottom > wallTop && hitboxTop < groundY && hitboxRight > wallLeft && hitboxLeft < wallRight) {
+                // collision
+                if (p.vx > 0) {
+                    p.x = wallLeft - (hitboxRight - p.x); // push player left based on hitbox right edge
+                } else if (p.vx < 0) {
+                    p.x = wallRight + (p.x - hitboxLeft); // push player right based on hitbox left edge
+                }
+                p.vx = 0;
+                continue;
+            }
+
+            // no overlap now: did the step jump over the wall? (a push above shortens the step)
+            double dx = Math.max(-Math.abs(run), Math.min(Math.abs(run), p.x - originX));
+            double dy = Math.max(-Math.abs(p.getRunY()), Math.min(Math.abs(p.getRunY()), p.y - p.prevY));
+            if (Sweep.isFast(dx, p.getHitboxWidth(), hitW)
+                    && Sweep.timeOfImpact(hitboxLeft - dx, hitboxTop - dy, p.getHitboxWidth(), p.getHitboxHeight(),
+                            dx, dy, wallLeft, wallTop, hitW, groundY - wallTop) != Sweep.NONE) {
+                // stop against the side the step came from
+                if (dx > 0) {
+                    p.x = wallLeft - (hitboxRight - p.x);
+                } else {
+                    p.x = wallRight + (p.x - hitboxLeft);
+                }
+                p.vx = 0;
+            }
+        }
+    }
+
+    /**
+     * Initialize generation parameters according to difficulty.
+     */
+    private void initDifficultySettings(GameSettings.Difficulty diff) {
+        // Defaults (MEDIUM)
+        platformMin = 250;
+        platformMax = 500;
+        holeMin = 60;
+        holeMax = 140;
+        holeSpawnChance = 0.75;
+        wallChance = 0.50;
+        wallHMin = 40;
+        wallHMax = 90;
+        gapShortMin = 30;
+        gapShortMax = 60;
+        gapMediumMin = 60;
+        gapMediumMax = 100;
+        gapLongMin = 100;
+        gapLongMax = 140;
+
+        if (diff == GameSettings.Difficulty.FACILE) {
+            // Easy: longer platforms, smaller holes, fewer obstacles, wider gaps
+            platformMin = 350;
+            platformMax = 650;
+            holeMin = 40;
+            holeMax = 80;
+            holeSpawnChance = 0.50;
+            wallChance = 0.20;
+            wallHMin = 25;
+            wallHMax = 60;
+            gapShortMin = 20;
+            gapShortMax = 50;
+            gapMediumMin = 50;
+            gapMediumMax = 80;
+            gapLongMin = 80;
+            gapLongMax = 120;
+        } else if (diff == GameSettings.Difficulty.DIFFICILE) {
+            // Hard: shorter platforms, but holes kept within reachable bounds
+            platformMin = 180;
+            platformMax = 380;
+            // reduce extreme hole sizes so jumps remain possible
+            holeMin = 80;
+            holeMax = 160;
+            // slightly lower spawn chance to avoid impossible sequences
+            holeSpawnChance = 0.85;
+            wallChance = 0.70;
+            wallHMin = 60;
+            wallHMax = 120;
+            gapShortMin = 40;
+            gapShortMax = 80;
+            gapMediumMin = 80;
+            gapMediumMax = 130;
+            gapLongMin = 130;
+            gapLongMax = 180;
+            // make platforms slightly longer on hard to leave landing spots
+            platformMin *= 1.05;
+            platformMax *= 1.05;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.jumpiquest.sim;
+
+import java.util.SplittableRandom;
+
+/**
+ * Moves entities by their velocity and respawns wrapping entities that left
+ * the left edge of the level at their wrapX plus a random offset, drawn from
+ * the level's seeded movement stream.
+ *
+ * In parallel mode each slice integrates its own entities and collects the
+ * ones to respawn; respawns are then applied on the calling thread in index
+ * order, so random draws happen in the same order as the sequential path.
+ *
+ * The store's X buckets are then told how far entities moved and which
+ * ones respawned, for the collision system and the level queries.
+ */
+public final class MovementSystem implements GameSystem {
+    private final IntList wrapped = new IntList();
+    private EntityStore store;
+    private double stepDt;
+    private final SliceRunner.Body integrate = (from, to, out) -> {
+        integrate(store, stepDt, from, to);
+        findWrapped(store, from, to, out);
+    };
+
+    @Override
+    public String name() {
+        return "movement";
+    }
+
+    @Override
+    public void update(Simulation sim, double dt) {
+        LevelModel level = sim.getLevel();
+        EntityStore e = level.entities;
+        int n = e.size();
+        SliceRunner slices = sim.slicesFor(n);
+        wrapped.clear();
+        if (slices == null) {
+            integrate(e, dt, 0, n);
+            findWrapped(e, 0, n, wrapped);
+        } else {
+            store = e;
+            stepDt = dt;
+            slices.run(n, integrate, wrapped);
+            store = null;
+        }
+        SplittableRandom rnd = level.movementRandom();
+        for (int k = 0; k < wrapped.size(); k++) {
+            int i = wrapped.get(k);
+            e.x[i] = e.wrapX[i] + rnd.nextDouble(50, 300);
+            // teleport: do not interpolate across the whole level
+            e.prevX[i] = e.x[i];
+        }
+        e.moved(dt, wrapped);
+    }
+
+    private static void integrate(EntityStore e, double dt, int from, int to) {
+        double[] x = e.x, vx = e.vx;
+        // static entities have vx 0: one straight loop the JIT can vectorize
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i] * dt;
+        }
+    }
+
+    private static void findWrapped(EntityStore e, int from, int to, IntList out) {
+        double[] x = e.x, w = e.w;
+        int[] flags = e.flags;
+        for (int i = from; i < to; i++) {
+            if (x[i] + w[i] < 0 && (flags[i] & EntityStore.WRAPS) != 0) {
+                out.add(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.jumpiquest.sim;
+
+/**
+ * Static level geometry: a platform segment, a hole in the ground or a wall
+ * standing on the ground. Pure data, rendered by engine.Obstacle.
+ *
+ * Streamed levels recycle instances once their chunk is dropped (see
+ * LevelModel), so anything kept past the drop must copy the fields.
+ */
+public class ObstacleModel {
+    public enum Type { WALL, HOLE, PLATFORM }
+
+    public Type type;
+    public double x;
+    public double w;
+    // only for wall
+    public double h;
+    // index of the sprite used to draw a wall (tree, rock, wood)
+    public int variant;
+
+    public ObstacleModel(Type type, double x, double w, double h, int variant) {
+        set(type, x, w, h, variant);
+    }
+
+    /**
+     * Reuse this instance for another obstacle.
+     */
+    ObstacleModel set(Type type, double x, double w, double h, int variant) {
+        this.type = type;
+        this.x = x;
+        this.w = w;
+        this.h = h;
+        this.variant = variant;
+        return this;
+    }
+}
@@ -0,0 +1,74 @@
+package com.jumpiquest.sim;
+
+/**
+ * Nanosecond timing of the consecutive phases of a loop (a simulation step,
+ * a rendered frame), one fixed-memory {@link LatencyHistogram} per phase.
+ *
+ * Phases are timed as laps: start() reads the clock, and each lap() records
+ * the time since the previous call under a phase and returns the new start.
+ * When disabled, start() returns 0 and lap() returns at once without
+ * reading the clock, so the instrumentation can stay in the loop. One
+ * thread records; any thread may read or toggle.
+ */
+public final class PhaseProfiler {
+    private final String[] names;
+    private final LatencyHistogram[] histograms;
+    private volatile boolean enabled = false;
+
+    public PhaseProfiler(String... names) {
+        this.names = names.clone();
+        this.histograms = new LatencyHistogram[names.length];
+        for (int i = 0; i < names.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Start timing: the current time, or 0 if disabled.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record the time since t under phase; returns the start of the next
+     * phase (0 stays 0, so a disabled run never reads the clock).
+     */
+    public long lap(int phase, long t) {
+        if (t == 0) return 0;
+        long now = System.nanoTime();
+        histograms[phase].record(now - t);
+        return now;
+    }
+
+    /**
+     * Record a duration measured elsewhere (ignored when disabled).
+     */
+    public void record(int phase, long nanos) {
+        if (enabled) histograms[phase].record(nanos);
+    }
+
+    public int getPhaseCount() {
+        return names.length;
+    }
+
+    public String getName(int phase) {
+        return names[phase];
+    }
+
+    public LatencyHistogram getHistogram(int phase) {
+        return histograms[phase];
+    }
+
+    public void reset() {
+        for (LatencyHistogram h : histograms) h.reset();
+    }
+}
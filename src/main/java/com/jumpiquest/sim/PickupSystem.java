@@ -0,0 +1,25 @@
+package com.jumpiquest.sim;
+
+/**
+ * Collects every pickup the player touches: adds its value to the score and
+ * removes it from the level.
+ */
+public final class PickupSystem implements GameSystem {
+    @Override
+    public String name() {
+        return "pickup";
+    }
+
+    @Override
+    public void update(Simulation sim, double dt) {
+        IntList contacts = sim.getContacts();
+        EntityStore e = sim.getLevel().entities;
+        // contacts are in index order; removing from the last keeps the rest valid
+        for (int i = contacts.size() - 1; i >= 0; i--) {
+            int id = contacts.get(i);
+            if ((e.flags[id] & EntityStore.PICKUP) != 0) {
+                sim.collect(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.jumpiquest.sim;
+
+/**
+ * Player physics body: position, velocity, gravity, ground collision, lives
+ * and invincibility. Rendering and sprite animation live in engine.Player.
+ */
+public class PlayerModel {
+    // Visual size used when no sprites are loaded (headless): sprite1 scaled
+    // to PlayerAnimation's 150 px target height, preserving its 464x538 ratio.
+    public static final double DEFAULT_HEIGHT = 150.0;
+    public static final double DEFAULT_WIDTH = DEFAULT_HEIGHT * 464.0 / 538.0;
+
+    public double x, y;
+    public double vx, vy;
+    // Position at the previous simulation step (for render interpolation)
+    public double prevX, prevY;
+    // Distance moved by velocity during the last update, before ground,
+    // wall and world-bound corrections (what swept collision tests cover)
+    private double runX, runY;
+    // Dimensions of the visual sprite
+    public final double w, h;
+    // Hitbox dimensions (smaller than visual size, for collision detection)
+    private final double hitboxWidth;
+    private final double hitboxHeight;
+    // Hitbox scale factor: hitbox = sprite * scale
+    private static final double HITBOX_SCALE = 0.65;  // 65% of sprite size
+    public final double speed = 240;
+    public final double jumpSpeed = 600;
+    public final double gravity = 1600;
+    public boolean onGround = false;
+
+    // Lives / invincibility
+    private int lives = 3;
+    private static final int MAX_LIVES = 3;
+    private boolean invincible = false;
+    private double invincibilityTimer = 0.0; // seconds remaining
+    private double blinkTimer = 0.0; // toggles visibility
+    private boolean visible = true; // used for blinking while invincible
+
+    public PlayerModel(double x, double y) {
+        this(x, y, DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+
+    public PlayerModel(double x, double y, double w, double h) {
+        this.x = x;
+        this.y = y;
+        this.prevX = x;
+        this.prevY = y;
+        this.w = w;
+        this.h = h;
+        // Calculate reduced hitbox (65% of sprite size, centered on player)
+        this.hitboxWidth = w * HITBOX_SCALE;
+        this.hitboxHeight = h * HITBOX_SCALE;
+    }
+
+    /**
+     * Store the current position as the previous simulation state.
+     */
+    public void savePreviousState() {
+        prevX = x;
+        prevY = y;
+    }
+
+    public void update(double dt, boolean left, boolean right, boolean jump, LevelModel level) {
+        double ax = 0;
+        if (left) ax = -speed;
+        if (right) ax = speed;
+        vx = ax;
+
+        double startX = x, startY = y;
+        runX = vx * dt;
+        x += runX;
+
+        vy += gravity * dt;
+        runY = vy * dt;
+        y += runY;
+
+        double groundY = level != null ? level.getGroundY() - h : 500 - h;
+        double centerX = x + w / 2.0;
+        boolean overHole = level != null && level.isHoleAt(centerX);
+
+        if (!overHole && level != null && y > groundY) {
+            // a long step (low tick rate) can carry the center over a whole
+            // hole: fall in if the player was at ground level when reaching it
+            ObstacleModel hole = level.holeCrossed(startX + w / 2.0, centerX);
+            if (hole != null) {
+                double edge = x > startX ? hole.x : hole.x + hole.w;
+                double t = (edge - (startX + w / 2.0)) / (centerX - (startX + w / 2.0));
+                if (startY + (y - startY) * t >= groundY) {
+                    // stop just inside the near edge, like a short step would
+                    x = (x > startX ? edge + 1 : edge - 1) - w / 2.0;
+                    overHole = true;
+                }
+            }
+        }
+
+        if (!overHole && y > groundY) {
+            y = groundY;
+            vy = 0;
+            onGround = true;
+        } else {
+            onGround = false;
+        }
+
+        if (jump && onGround) {
+            vy = -jumpSpeed;
+            onGround = false;
+        }
+
+        // keep player within world bounds when a level is provided
+        if (x < 0) x = 0;
+        if (level != null) {
+            double maxX = Math.max(0, level.levelWidth - w);
+            if (x > maxX) x = maxX;
+        } else {
+            if (x > 800 - w) x = 800 - w;
+        }
+
+        // update invincibility / blinking
+        if (invincible) {
+            invincibilityTimer -= dt;
+            blinkTimer += dt;
+            if (blinkTimer >= 0.1) {
+                visible = !visible;
+                blinkTimer = 0.0;
+            }
+            if (invincibilityTimer <= 0) {
+                invincible = false;
+                visible = true;
+                invincibilityTimer = 0.0;
+                blinkTimer = 0.0;
+            }
+        } else {
+            visible = true;
+        }
+    }
+
+    /**
+     * Horizontal distance moved by velocity during the last update
+     * (vx * dt), not counting wall push-outs, world bounds or respawns.
+     */
+    public double getRunX() {
+        return runX;
+    }
+
+    /**
+     * Vertical distance moved by velocity during the last update
+     * (vy * dt), not counting landing on the ground.
+     */
+    public double getRunY() {
+        return runY;
+    }
+
+    // --- Life system methods ---
+    public int getLives() {
+        return lives;
+    }
+
+    public boolean isInvincible() {
+        return invincible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void resetLives() {
+        lives = MAX_LIVES;
+        invincible = false;
+        invincibilityTimer = 0.0;
+        visible = true;
+    }
+
+    public void addLife() {
+        if (lives < MAX_LIVES) lives++;
+    }
+
+    public void takeDamage() {
+        if (invincible) return;
+        lives--;
+        // small recoil
+        vx = -150;
+        // start invincibility
+        invincible = true;
+        invincibilityTimer = 2.0;
+        blinkTimer = 0.0;
+        visible = false; // start with invisible to show blink
+        if (lives <= 0) {
+            die();
+        }
+    }
+
+    public void die() {
+        // Disable player movement / simple game over handling
+        vx = 0;
+        vy = 0;
+        // Simulation checks getLives() == 0 for game over
+    }
+
+    /**
+     * Get the left edge of the hitbox (centered on player).
+     */
+    public double getHitboxLeft() {
+        return x + (w - hitboxWidth) / 2.0;
+    }
+
+    /**
+     * Get the right edge of the hitbox (centered on player).
+     */
+    public double getHitboxRight() {
+        return getHitboxLeft() + hitboxWidth;
+    }
+
+    /**
+     * Get the top edge of the hitbox (centered on player).
+     */
+    public double getHitboxTop() {
+        return y + (h - hitboxHeight) / 2.0;
+    }
+
+    /**
+     * Get the bottom edge of the hitbox (centered on player).
+     */
+    public double getHitboxBottom() {
+        return getHitboxTop() + hitboxHeight;
+    }
+
+    /**
+     * Get the hitbox width.
+     */
+    public double getHitboxWidth() {
+        return hitboxWidth;
+    }
+
+    /**
+     * Get the hitbox height.
+     */
+    public double getHitboxHeight() {
+        return hitboxHeight;
+    }
+}
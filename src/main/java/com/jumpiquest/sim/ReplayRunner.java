@@ -0,0 +1,114 @@
+package com.jumpiquest.sim;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Headless replay of recorded runs ({@link InputLog}) at maximum speed.
+ *
+ * verify: replays every log and checks that the final score, outcome and
+ * step count match what was recorded.
+ * record: plays AutoPilot games and records them, like the game does.
+ *
+ * Usage: ReplayRunner verify [log files or directories...]
+ *        ReplayRunner record [directory] [gamesPerDifficulty] [seed]
+ */
+public final class ReplayRunner {
+    private static final int STEPS_PER_SECOND = (int) Math.round(1.0 / HeadlessRunner.STEP);
+
+    private ReplayRunner() { }
+
+    /**
+     * Step a new simulation with the log's input until it ends or the input
+     * runs out; returns the finished simulation.
+     */
+    public static Simulation replay(InputLog log) {
+        Simulation sim = log.newSimulation();
+        double step = 1.0 / log.stepsPerSecond;
+        InputLog.Cursor input = log.cursor();
+        while (!sim.isFinished() && !input.isDone()) {
+            sim.step(step, input.next());
+        }
+        return sim;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String mode = args.length > 0 ? args[0] : "verify";
+        if (mode.equals("record")) {
+            Path dir = Paths.get(args.length > 1 ? args[1] : "replays");
+            int games = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : LevelModel.newSeed();
+            record(dir, games, seed);
+        } else {
+            List<Path> files = new ArrayList<>();
+            for (int i = 1; i < args.length; i++) collect(Paths.get(args[i]), files);
+            if (args.length < 2) collect(Paths.get("replays"), files);
+            verify(files);
+        }
+    }
+
+    private static void record(Path dir, int games, long seed) {
+        for (GameSettings.Difficulty diff : GameSettings.Difficulty.values()) {
+            for (int i = 0; i < games; i++) {
+                long gameSeed = seed + i;
+                Path file = dir.resolve(diff.name().toLowerCase() + "-" + Long.toHexString(gameSeed) + ".jqr");
+                LevelModel level = LevelModel.baked(diff, gameSeed);
+                PlayerModel player = new PlayerModel(100, 400);
+                Simulation sim = new Simulation(level, player);
+                InputLogWriter writer = new InputLogWriter(file, diff, false, true, gameSeed,
+                        player.w, player.h, STEPS_PER_SECOND);
+                long maxTicks = (long) (600.0 * STEPS_PER_SECOND);
+                while (!sim.isFinished() && sim.getTicks() < maxTicks) {
+                    int input = AutoPilot.decide(sim);
+                    writer.record(input);
+                    sim.step(HeadlessRunner.STEP, input);
+                }
+                // wait for the background write before the JVM can exit
+                writer.finish(sim.getScore(), sim.getOutcome()).join();
+                System.out.printf("recorded %s: %s score=%d steps=%d%n", file, sim.getOutcome(),
+                        sim.getScore(), sim.getTicks());
+            }
+        }
+    }
+
+    private static void verify(List<Path> files) throws IOException {
+        int ok = 0, failed = 0;
+        for (Path file : files) {
+            InputLog log = InputLog.read(file);
+            long start = System.nanoTime();
+            Simulation sim = replay(log);
+            double wallSeconds = (System.nanoTime() - start) / 1e9;
+            double simSeconds = sim.getTicks() / (double) log.stepsPerSecond;
+            boolean match = !log.isComplete()
+                    || (sim.getScore() == log.getScore() && sim.getOutcome() == log.getOutcome()
+                        && sim.getTicks() == log.getTotalSteps());
+            if (match) ok++;
+            else failed++;
+            System.out.printf("%-40s %6d bytes %9s %-9s score=%d/%s steps=%d/%d %s speedup=%.0fx%n",
+                    file.getFileName(), Files.size(file), log.difficulty, sim.getOutcome(),
+                    sim.getScore(), log.isComplete() ? String.valueOf(log.getScore()) : "?",
+                    sim.getTicks(), log.getTotalSteps(),
+                    !log.isComplete() ? "UNFINISHED" : match ? "OK" : "MISMATCH",
+                    simSeconds / Math.max(wallSeconds, 1e-9));
+        }
+        System.out.printf("%d replays verified, %d mismatched%n", ok, failed);
+        if (failed > 0) System.exit(1);
+    }
+
+    private static void collect(Path path, List<Path> files) throws IOException {
+        if (!Files.isDirectory(path)) {
+            if (Files.exists(path)) files.add(path);
+            return;
+        }
+        try (Stream<Path> s = Files.list(path)) {
+            s.filter(p -> p.toString().endsWith(".jqr")).sorted().forEach(files::add);
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.jumpiquest.sim;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Game rules for one run: advances the player and level by a time step and
+ * applies collisions, food pickup, damage/respawn and the win/lose conditions.
+ * Has no JavaFX dependency so it can be stepped headless, faster than real time.
+ *
+ * Level entities are updated by a fixed pipeline of {@link GameSystem}s
+ * (movement, collision, damage, pickup); {@link #getPhases} times every
+ * phase of the step, each system on its own, into histograms. With
+ * {@link #setParallel} the movement loop of large levels is split across a
+ * ForkJoinPool.
+ */
+public class Simulation {
+    public enum Outcome { RUNNING, WON, LOST }
+
+    // Input bits accepted by step(dt, input)
+    public static final int INPUT_LEFT = 1;
+    public static final int INPUT_RIGHT = 2;
+    public static final int INPUT_JUMP = 4;
+    // Below this many entities, forking costs more than the loops themselves
+    public static final int PARALLEL_MIN = 8_192;
+
+    private static final SimulationListener NO_LISTENER = new SimulationListener() { };
+
+    private final LevelModel level;
+    private final PlayerModel player;
+    private SimulationListener listener = NO_LISTENER;
+    private Outcome outcome = Outcome.RUNNING;
+    private int score = 0;
+    private long ticks = 0;
+    // Last checkpoint X position (updated while player is on ground)
+    private double lastCheckpointX;
+    // House / entry state
+    private boolean enteringHouse = false;
+    private double enterTimer = 0.0;
+    private double playerAlpha = 1.0;
+    // Entity systems, run in this order every step
+    private final GameSystem[] systems = {
+        new MovementSystem(), new CollisionSystem(), new DamageSystem(), new PickupSystem()
+    };
+    // Phases of a step, for the profiler overlay: stream, player, walls, one per system, rules
+    private static final int PHASE_STREAM = 0, PHASE_PLAYER = 1, PHASE_WALLS = 2, PHASE_SYSTEMS = 3;
+    private final PhaseProfiler phases = new PhaseProfiler(phaseNames(systems));
+    // entities overlapping the player this step (CollisionSystem output)
+    private final IntList contacts = new IntList();
+    // Optional parallel phase for movement (null = sequential)
+    private SliceRunner slices;
+
+    public Simulation(LevelModel level, PlayerModel player) {
+        this.level = level;
+        this.player = player;
+        // initialize checkpoint to player's starting X
+        this.lastCheckpointX = player.x;
+    }
+
+    private static String[] phaseNames(GameSystem[] systems) {
+        String[] names = new String[PHASE_SYSTEMS + systems.length + 1];
+        names[PHASE_STREAM] = "stream";
+        names[PHASE_PLAYER] = "player";
+        names[PHASE_WALLS] = "walls";
+        for (int i = 0; i < systems.length; i++) names[PHASE_SYSTEMS + i] = systems[i].name();
+        names[names.length - 1] = "rules";
+        return names;
+    }
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    public void step(double dt, int input) {
+        step(dt, (input & INPUT_LEFT) != 0, (input & INPUT_RIGHT) != 0, (input & INPUT_JUMP) != 0);
+    }
+
+    /**
+     * Advance the game by dt seconds with the given input state.
+     */
+    public void step(double dt, boolean left, boolean right, boolean jump) {
+        if (outcome != Outcome.RUNNING) return;
+        ticks++;
+        long t = phases.start();
+
+        // endless levels generate ahead of the player and drop what is behind
+        level.stream(player.x, lastCheckpointX);
+        t = phases.lap(PHASE_STREAM, t);
+
+        player.savePreviousState();
+        level.entities.savePreviousState();
+
+        // Detect an initiating jump (player was on ground and jump key pressed)
+        boolean willJump = jump && player.onGround;
+        player.update(dt, left, right, jump, level);
+        if (willJump) {
+            listener.onJump();
+        }
+        t = phases.lap(PHASE_PLAYER, t);
+
+        // wall collisions handled by level
+        level.handleWallCollisions(player);
+        t = phases.lap(PHASE_WALLS, t);
+
+        // entity systems: move, find contacts, apply damage and pickups
+        for (int i = 0; i < systems.length; i++) {
+            systems[i].update(this, dt);
+            t = phases.lap(PHASE_SYSTEMS + i, t);
+            if (outcome != Outcome.RUNNING) return;
+        }
+
+        // Check for entering the end-house (if present)
+        HouseModel house = level.house;
+        if (house != null) {
+            double phLeft = player.getHitboxLeft();
+            double phTop = player.getHitboxTop();
+            double phW = player.getHitboxWidth();
+            double phH = player.getHitboxHeight();
+
+            if (!enteringHouse && house.intersects(phLeft, phTop, phW, phH)) {
+                // begin entering sequence
+                enteringHouse = true;
+                enterTimer = 0.0;
+                player.vx = 60; // gentle push into house
+                player.vy = 0;
+            }
+
+            if (enteringHouse) {
+                // gently advance player toward center of the house
+                double targetHitboxLeft = house.x + house.width / 2.0 - phW / 2.0;
+                double advanceSpeed = 90.0;
+                double maxAdvance = advanceSpeed * dt;
+                if (player.getHitboxLeft() < targetHitboxLeft) {
+                    player.x = Math.min(player.x + maxAdvance, targetHitboxLeft);
+                }
+                enterTimer += dt;
+                playerAlpha = Math.max(0.0, 1.0 - enterTimer / 1.2);
+
+                // when player sufficiently inside or timer expired, finish level
+                if (player.getHitboxRight() >= house.x + house.width - 8 || enterTimer > 1.5) {
+                    finish(true);
+                    return;
+                }
+            }
+        }
+
+        // detect falling into hole: if player hitbox center goes below ground level while over a hole
+        double centerX = player.getHitboxLeft() + player.getHitboxWidth() / 2.0;
+        if (level.isHoleAt(centerX) && player.getHitboxBottom() > level.getGroundY()) {
+            player.takeDamage();
+            if (player.getLives() <= 0) {
+                finish(false);
+                return;
+            }
+            respawn();
+        }
+
+        // check for level completion: player reached the end
+        // allow a small offset (~10 px) so reaching slightly before counts
+        if (player.getHitboxRight() >= level.endX - 10.0) {
+            finish(true);
+            return;
+        }
+
+        // Save checkpoint while player is on a stable ground position.
+        // Only advance checkpoint when player moves forward to avoid regressing it.
+        if (player.onGround && player.x > lastCheckpointX) {
+            lastCheckpointX = player.x;
+        }
+        phases.lap(PHASE_SYSTEMS + systems.length, t);
+    }
+
+    /**
+     * The player touched a hazard: lose a life, then respawn or lose the game.
+     */
+    void damagePlayer() {
+        player.takeDamage();
+        if (player.getLives() <= 0) {
+            finish(false);
+            return;
+        }
+        respawn();
+    }
+
+    /**
+     * The player touched pickup i: score it and remove it from the level.
+     */
+    void collect(int i) {
+        int points = level.collect(i);
+        score += points;
+        listener.onFoodCollected(points);
+    }
+
+    IntList getContacts() {
+        return contacts;
+    }
+
+    /**
+     * Split entity movement across pool in index slices
+     * once the level holds at least PARALLEL_MIN entities, or go back to the
+     * single-threaded path with null. The merge is deterministic: the outcome
+     * is the same as the sequential path. Collision stays on the calling
+     * thread: it only reads the X buckets around the player, a handful of
+     * entities however large the level, so slicing it would cost more than
+     * it saves.
+     */
+    public void setParallel(ForkJoinPool pool) {
+        slices = pool == null ? null : new SliceRunner(pool);
+    }
+
+    public ForkJoinPool getParallelPool() {
+        return slices == null ? null : slices.getPool();
+    }
+
+    /**
+     * The slice runner for an entity loop over n entities, or null if it
+     * should run sequentially.
+     */
+    SliceRunner slicesFor(int n) {
+        return n >= PARALLEL_MIN ? slices : null;
+    }
+
+    public GameSystem[] getSystems() {
+        return systems;
+    }
+
+    /**
+     * Per-phase step timing (disabled until enabled on the returned profiler).
+     */
+    public PhaseProfiler getPhases() {
+        return phases;
+    }
+
+    /**
+     * Respawn the player at last checkpoint minus 100px (safety), clamped >= 0,
+     * standing on the ground.
+     */
+    private void respawn() {
+        player.x = Math.max(0, lastCheckpointX - 100.0);
+        player.y = level.getGroundY() - player.h;
+        player.vx = 0;
+        player.vy = 0;
+        player.onGround = true;
+        // teleport: do not interpolate from the death position
+        player.savePreviousState();
+        listener.onRespawn();
+    }
+
+    private void finish(boolean win) {
+        outcome = win ? Outcome.WON : Outcome.LOST;
+        listener.onGameEnd(win);
+    }
+
+    public LevelModel getLevel() {
+        return level;
+    }
+
+    public PlayerModel getPlayer() {
+        return player;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isFinished() {
+        return outcome != Outcome.RUNNING;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public double getLastCheckpointX() {
+        return lastCheckpointX;
+    }
+
+    public boolean isEnteringHouse() {
+        return enteringHouse;
+    }
+
+    /**
+     * Player opacity while walking into the end house (1 = fully visible).
+     */
+    public double getPlayerAlpha() {
+        return playerAlpha;
+    }
+}
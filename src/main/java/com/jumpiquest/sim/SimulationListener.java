@@ -0,0 +1,20 @@
+package com.jumpiquest.sim;
+
+/**
+ * Callbacks for gameplay events raised by {@link Simulation#step}. The JavaFX
+ * engine uses them for sound, score persistence and UI; headless runs can
+ * ignore them. All methods default to no-ops.
+ */
+public interface SimulationListener {
+    /** The player left the ground with a jump. */
+    default void onJump() { }
+
+    /** The player picked up a food item (already removed from the level). */
+    default void onFoodCollected(int points) { }
+
+    /** The player lost a life and was moved back to the last checkpoint. */
+    default void onRespawn() { }
+
+    /** The game ended; no further steps will change the state. */
+    default void onGameEnd(boolean win) { }
+}
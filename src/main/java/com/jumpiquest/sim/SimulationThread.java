@@ -0,0 +1,90 @@
+package com.jumpiquest.sim;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs a tick at a fixed rate on its own daemon thread, so stepping the
+ * game does not depend on how long a frame takes to render. Late ticks are
+ * caught up (at most maxCatchUp per wake-up); time beyond that is dropped
+ * instead of spiralling.
+ *
+ * The tick receives its scheduled time (System.nanoTime() scale): during
+ * catch-up several ticks run back to back, each with its own slot in time,
+ * so time-stamped input can be applied to the step it belongs to.
+ */
+public final class SimulationThread {
+    private final LongConsumer tick;
+    private final long stepNanos;
+    private final int maxCatchUp;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean paused = false;
+
+    public SimulationThread(String name, double step, int maxCatchUp, LongConsumer tick) {
+        this.tick = tick;
+        this.stepNanos = Math.round(step * 1e9);
+        this.maxCatchUp = maxCatchUp;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        // pacing matters more than throughput here
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Stop ticking after the current tick; may be called from the tick itself.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+    }
+
+    public void pause() {
+        paused = true;
+    }
+
+    public void resume() {
+        paused = false;
+        LockSupport.unpark(thread);
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    private void run() {
+        long next = System.nanoTime();
+        while (running) {
+            if (paused) {
+                LockSupport.park(this);
+                // do not catch up on the time spent paused
+                next = System.nanoTime();
+                continue;
+            }
+            long now = System.nanoTime();
+            int steps = 0;
+            while (now - next >= 0 && steps < maxCatchUp && running && !paused) {
+                try {
+                    tick.accept(next);
+                } catch (RuntimeException e) {
+                    System.out.println("Simulation tick failed: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                next += stepNanos;
+                steps++;
+            }
+            // drop time we could not catch up on
+            if (now - next >= stepNanos) next = now;
+            long wait = next - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(this, wait);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.jumpiquest.sim;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a loop body over the entity indexes [0, n) split into contiguous
+ * slices on a {@link ForkJoinPool}. Every slice appends its results to its
+ * own list, in index order, and the lists are concatenated in slice order,
+ * so the merged result is exactly what one sequential pass would produce.
+ *
+ * Tasks and result lists are reused between calls; only one run at a time.
+ */
+public final class SliceRunner {
+    /** Loop body for the indexes [from, to); appends results to out. */
+    public interface Body {
+        void run(int from, int to, IntList out);
+    }
+
+    private final ForkJoinPool pool;
+    private final Slice[] slices;
+    private final Fork fork = new Fork();
+
+    private final class Slice extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        final IntList out = new IntList();
+        Body body;
+        int from, to;
+
+        @Override
+        protected void compute() {
+            body.run(from, to, out);
+        }
+    }
+
+    private final class Fork extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            invokeAll(slices);
+        }
+    }
+
+    public SliceRunner(ForkJoinPool pool) {
+        this.pool = pool;
+        // a few slices per worker so an uneven slice does not stall the step
+        int count = Math.max(1, pool.getParallelism() * 4);
+        this.slices = new Slice[count];
+        for (int i = 0; i < count; i++) {
+            slices[i] = new Slice();
+        }
+    }
+
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Run body over [0, n) in parallel and append the merged results to
+     * merged (may be null if the body produces none).
+     */
+    public void run(int n, Body body, IntList merged) {
+        int count = slices.length;
+        for (int s = 0; s < count; s++) {
+            Slice slice = slices[s];
+            slice.reinitialize();
+            slice.out.clear();
+            slice.body = body;
+            slice.from = (int) ((long) n * s / count);
+            slice.to = (int) ((long) n * (s + 1) / count);
+        }
+        fork.reinitialize();
+        pool.invoke(fork);
+        if (merged == null) return;
+        for (int s = 0; s < count; s++) {
+            IntList out = slices[s].out;
+            for (int i = 0; i < out.size(); i++) {
+                merged.add(out.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.jumpiquest.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What the renderer needs from one simulation tick: player, camera, entity,
+ * terrain and score state copied out of the live simulation, so the
+ * JavaFX thread can draw it while the next tick runs. Instances are
+ * recycled by {@link SnapshotExchange}; only the simulation thread writes
+ * them, and only before publishing.
+ *
+ * Obstacles only change when a level streams chunks in or out, so they are
+ * copied again only when the level's obstacle version differs from the one
+ * this snapshot holds, into ObstacleModels the snapshot keeps.
+ */
+public final class Snapshot {
+    // Exchange order, set on publish (0 = never published)
+    long sequence;
+
+    public long tick;
+    // System.nanoTime() when the tick finished, for render interpolation
+    public long nanoTime;
+    // Simulation.INPUT_* bits the tick was stepped with
+    public int input;
+
+    public double playerX, playerY, playerPrevX, playerPrevY;
+    public boolean playerVisible, playerOnGround;
+    public int lives;
+
+    // Camera offset after this tick and after the one before
+    public double cameraX, prevCameraX;
+
+    public int score;
+    public Simulation.Outcome outcome = Simulation.Outcome.RUNNING;
+    public boolean enteringHouse;
+    public double playerAlpha = 1.0;
+
+    public final EntityStore entities = new EntityStore();
+
+    // Level width and the first obstacleCount obstacles, as of obstacleVersion
+    // (-1 = never captured)
+    public int levelWidth;
+    public int obstacleVersion = -1;
+    private int obstacleCount;
+    private final List<ObstacleModel> obstacles = new ArrayList<>();
+
+    /**
+     * Copy the current state of sim (stepped with input) into this snapshot.
+     * The camera is set by the caller.
+     */
+    public void capture(Simulation sim, int input) {
+        PlayerModel p = sim.getPlayer();
+        this.tick = sim.getTicks();
+        this.nanoTime = System.nanoTime();
+        this.input = input;
+        playerX = p.x;
+        playerY = p.y;
+        playerPrevX = p.prevX;
+        playerPrevY = p.prevY;
+        playerVisible = p.isVisible();
+        playerOnGround = p.onGround;
+        lives = p.getLives();
+        score = sim.getScore();
+        outcome = sim.getOutcome();
+        enteringHouse = sim.isEnteringHouse();
+        playerAlpha = sim.getPlayerAlpha();
+        LevelModel level = sim.getLevel();
+        entities.copyFrom(level.entities);
+        levelWidth = level.levelWidth;
+        if (obstacleVersion != level.getObstacleVersion()) copyObstacles(level);
+    }
+
+    private void copyObstacles(LevelModel level) {
+        List<ObstacleModel> src = level.obstacles;
+        int n = src.size();
+        // streamed levels: room for as many as the level can hold, up front
+        for (int i = obstacles.size(), size = Math.max(n, level.getObstacleCapacity()); i < size; i++) {
+            obstacles.add(new ObstacleModel(ObstacleModel.Type.HOLE, 0, 0, 0, 0));
+        }
+        for (int i = 0; i < n; i++) {
+            ObstacleModel o = src.get(i);
+            obstacles.get(i).set(o.type, o.x, o.w, o.h, o.variant);
+        }
+        obstacleCount = n;
+        obstacleVersion = level.getObstacleVersion();
+    }
+
+    public int getObstacleCount() {
+        return obstacleCount;
+    }
+
+    /**
+     * Obstacle i (below getObstacleCount()) of the level; the instance is
+     * reused by later captures.
+     */
+    public ObstacleModel getObstacle(int i) {
+        return obstacles.get(i);
+    }
+}
@@ -0,0 +1,57 @@
+package com.jumpiquest.sim;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free handoff of {@link Snapshot}s from the simulation thread to the
+ * render thread. Three snapshots rotate: the writer fills its back buffer
+ * and swaps it into the shared slot; the reader swaps its front buffer for
+ * the shared one when that is newer. Neither side ever waits for the other
+ * and a snapshot is never written while it is being drawn.
+ *
+ * One writer thread and one reader thread.
+ */
+public final class SnapshotExchange {
+    private final AtomicReference<Snapshot> ready = new AtomicReference<>(new Snapshot());
+    // owned by the writer
+    private Snapshot back = new Snapshot();
+    private long published = 0;
+    // owned by the reader
+    private Snapshot front = new Snapshot();
+
+    /**
+     * Capture sim into all three snapshots, so later captures reuse arrays
+     * sized for its level. Only before the exchange is shared.
+     */
+    public void prime(Simulation sim) {
+        back.capture(sim, 0);
+        ready.get().capture(sim, 0);
+        front.capture(sim, 0);
+    }
+
+    /**
+     * The snapshot to fill before the next publish() (writer thread).
+     */
+    public Snapshot back() {
+        return back;
+    }
+
+    /**
+     * Make the filled back buffer the latest snapshot (writer thread).
+     */
+    public void publish() {
+        back.sequence = ++published;
+        back = ready.getAndSet(back);
+    }
+
+    /**
+     * The most recently published snapshot (reader thread). It stays valid
+     * until the next call.
+     */
+    public Snapshot latest() {
+        if (ready.get().sequence > front.sequence) {
+            front = ready.getAndSet(front);
+        }
+        return front;
+    }
+}
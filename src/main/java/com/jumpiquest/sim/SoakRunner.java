@@ -0,0 +1,244 @@
+package com.jumpiquest.sim;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Load test for the game rules: plays complete games headless on a pool of
+ * worker threads, over consecutive seeds and all three difficulties, with
+ * scripted ({@link AutoPilot}), random or mixed input, and reports games
+ * and ticks per second, the heap high-water mark, GC activity and the
+ * outcome distribution per difficulty.
+ *
+ * Game g is difficulty g % 3 on seed + g / 3, whichever worker plays it, and
+ * its input only depends on its seed, so the printed checksum (an
+ * order-independent sum of every final state) is the same for any thread
+ * count. With "scale" instead of a thread count, the same games are played
+ * on 1, 2, 4... up to all processors and the speedup is printed.
+ *
+ * Usage: SoakRunner [gamesPerDifficulty] [threads|scale] [autopilot|random|mixed] [seed]
+ */
+public final class SoakRunner {
+    public enum Input { AUTOPILOT, RANDOM, MIXED }
+
+    private static final GameSettings.Difficulty[] DIFFICULTIES = GameSettings.Difficulty.values();
+    // Give up on a run after this much simulated time, like HeadlessRunner
+    private static final long MAX_TICKS = (long) (600.0 / HeadlessRunner.STEP);
+    private static final long HEAP_SAMPLE_MILLIS = 10;
+
+    /** Totals of the games one worker played, per difficulty. */
+    static final class Stats {
+        final long[] games = new long[DIFFICULTIES.length];
+        final long[][] outcomes = new long[DIFFICULTIES.length][Simulation.Outcome.values().length];
+        final long[] ticks = new long[DIFFICULTIES.length];
+        final long[] score = new long[DIFFICULTIES.length];
+        // game length in ticks
+        final LatencyHistogram[] length = new LatencyHistogram[DIFFICULTIES.length];
+        long checksum = 0;
+
+        Stats() {
+            for (int d = 0; d < DIFFICULTIES.length; d++) length[d] = new LatencyHistogram();
+        }
+
+        void add(int d, Simulation sim) {
+            games[d]++;
+            outcomes[d][sim.getOutcome().ordinal()]++;
+            ticks[d] += sim.getTicks();
+            score[d] += sim.getScore();
+            length[d].record(sim.getTicks());
+            checksum += HeadlessRunner.fingerprint(sim);
+        }
+
+        long totalGames() {
+            long n = 0;
+            for (long g : games) n += g;
+            return n;
+        }
+
+        long totalTicks() {
+            long n = 0;
+            for (long t : ticks) n += t;
+            return n;
+        }
+    }
+
+    /** Totals of one soak run. */
+    static final class Result {
+        final Stats stats;
+        final double seconds;
+        final long heapHighWater;
+        final long gcCount, gcMillis;
+
+        Result(Stats stats, double seconds, long heapHighWater, long gcCount, long gcMillis) {
+            this.stats = stats;
+            this.seconds = seconds;
+            this.heapHighWater = heapHighWater;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+    }
+
+    private SoakRunner() { }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        String threadArg = args.length > 1 ? args[1] : String.valueOf(Runtime.getRuntime().availableProcessors());
+        Input input = args.length > 2 ? Input.valueOf(args[2].toUpperCase()) : Input.AUTOPILOT;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        long total = (long) games * DIFFICULTIES.length;
+
+        if (threadArg.equalsIgnoreCase("scale")) {
+            System.out.printf("%8s %10s %12s %10s %10s%n", "threads", "games/s", "ticks/s", "speedup", "checksum");
+            double base = 0;
+            int max = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; ; threads = Math.min(threads * 2, max)) {
+                Result r = run(total, threads, input, seed);
+                double gps = r.stats.totalGames() / r.seconds;
+                if (base == 0) base = gps;
+                System.out.printf("%8d %10.0f %12.0f %9.2fx %016x%n", threads, gps, r.stats.totalTicks() / r.seconds,
+                        gps / base, r.stats.checksum);
+                if (threads == max) break;
+            }
+            return;
+        }
+
+        int threads = Integer.parseInt(threadArg);
+        System.out.printf("soak: %d games on %d threads, input=%s, seeds %d..%d%n",
+                total, threads, input.name().toLowerCase(), seed, seed + games - 1);
+        print(run(total, threads, input, seed));
+    }
+
+    /**
+     * Play games 0..total-1 on the given number of worker threads.
+     */
+    static Result run(long total, int threads, Input input, long seed) throws InterruptedException, ExecutionException {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long gcCount0 = gcCount(), gcMillis0 = gcMillis();
+        AtomicLong next = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "soak-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        long start = System.nanoTime();
+        List<Future<Stats>> workers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            workers.add(pool.submit(() -> {
+                Stats stats = new Stats();
+                for (long g; (g = next.getAndIncrement()) < total; ) {
+                    int d = (int) (g % DIFFICULTIES.length);
+                    stats.add(d, play(DIFFICULTIES[d], seed + g / DIFFICULTIES.length, input));
+                }
+                return stats;
+            }));
+        }
+        pool.shutdown();
+        // sample the heap while the workers run
+        long heapHighWater = memory.getHeapMemoryUsage().getUsed();
+        while (!pool.awaitTermination(HEAP_SAMPLE_MILLIS, TimeUnit.MILLISECONDS)) {
+            heapHighWater = Math.max(heapHighWater, memory.getHeapMemoryUsage().getUsed());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Stats merged = new Stats();
+        for (Future<Stats> f : workers) {
+            Stats s = f.get();
+            for (int d = 0; d < DIFFICULTIES.length; d++) {
+                merged.games[d] += s.games[d];
+                merged.ticks[d] += s.ticks[d];
+                merged.score[d] += s.score[d];
+                for (int o = 0; o < s.outcomes[d].length; o++) merged.outcomes[d][o] += s.outcomes[d][o];
+                merged.length[d].add(s.length[d]);
+            }
+            merged.checksum += s.checksum;
+        }
+        return new Result(merged, seconds, heapHighWater, gcCount() - gcCount0, gcMillis() - gcMillis0);
+    }
+
+    /**
+     * Play one game on the baked level of seed, as the game plays fixed
+     * levels, with the given input.
+     */
+    static Simulation play(GameSettings.Difficulty difficulty, long seed, Input input) {
+        return play(LevelModel.baked(difficulty, seed), input);
+    }
+
+    /**
+     * Play one game on level with the given input, drawn from the level's seed.
+     */
+    static Simulation play(LevelModel level, Input input) {
+        long seed = level.getSeed();
+        Simulation sim = new Simulation(level, new PlayerModel(100, 400));
+        // input randomness comes from the game's own seed, never the worker
+        SplittableRandom rnd = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        int held = 0;
+        int holdSteps = 0;
+        while (!sim.isFinished() && sim.getTicks() < MAX_TICKS) {
+            int bits;
+            if (input == Input.AUTOPILOT) {
+                bits = AutoPilot.decide(sim);
+            } else {
+                // random presses held for 50-500 ms, like a button masher
+                if (--holdSteps <= 0) {
+                    held = rnd.nextInt(8);
+                    holdSteps = rnd.nextInt(6, 60);
+                }
+                // mixed: the autopilot, with the random keys flipped on one step in 20
+                bits = input == Input.RANDOM ? held
+                        : AutoPilot.decide(sim) ^ (rnd.nextInt(20) == 0 ? held : 0);
+            }
+            sim.step(HeadlessRunner.STEP, bits);
+        }
+        return sim;
+    }
+
+    private static void print(Result r) {
+        Stats s = r.stats;
+        System.out.printf("%-9s %8s %7s %7s %7s %7s %9s %10s %10s%n", "", "games", "won", "lost", "timeout",
+                "won %", "avgScore", "len p50 s", "len p99 s");
+        for (int d = 0; d < DIFFICULTIES.length; d++) {
+            long[] o = s.outcomes[d];
+            long n = Math.max(1, s.games[d]);
+            System.out.printf("%-9s %8d %7d %7d %7d %6.1f%% %9.1f %10.1f %10.1f%n", DIFFICULTIES[d], s.games[d],
+                    o[Simulation.Outcome.WON.ordinal()], o[Simulation.Outcome.LOST.ordinal()],
+                    o[Simulation.Outcome.RUNNING.ordinal()], 100.0 * o[Simulation.Outcome.WON.ordinal()] / n,
+                    (double) s.score[d] / n, s.length[d].getPercentile(50) * HeadlessRunner.STEP,
+                    s.length[d].getPercentile(99) * HeadlessRunner.STEP);
+        }
+        long ticks = s.totalTicks();
+        System.out.printf("%d games in %.2f s: %.0f games/s, %.0f ticks/s (%.0fx real time)%n", s.totalGames(),
+                r.seconds, s.totalGames() / r.seconds, ticks / r.seconds, ticks * HeadlessRunner.STEP / r.seconds);
+        System.out.printf("heap high-water %.1f MB of %.0f MB, %d GCs taking %d ms%n", r.heapHighWater / 1048576.0,
+                Runtime.getRuntime().maxMemory() / 1048576.0, r.gcCount, r.gcMillis);
+        System.out.printf("checksum %016x%n", s.checksum);
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            n += Math.max(0, gc.getCollectionCount());
+        }
+        return n;
+    }
+
+    private static long gcMillis() {
+        long n = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            n += Math.max(0, gc.getCollectionTime());
+        }
+        return n;
+    }
+}
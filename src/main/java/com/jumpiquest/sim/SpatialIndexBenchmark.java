@@ -0,0 +1,155 @@
+package com.jumpiquest.sim;
+
+import java.util.SplittableRandom;
+
+import com.jumpiquest.main.GameSettings;
+
+/**
+ * Measures the per-query cost of the level's spatial lookups as the level
+ * grows, next to linear scans over the same data. Generated levels keep
+ * a fixed handful of animals and food whatever their width, so every level
+ * is topped up with ENTITIES_PER_CHUNK animals and food per chunk, and
+ * entities grow with the width like obstacles do. The hole, wall and near
+ * (X-bucketed entity) columns should stay flat while the scan columns
+ * grow with the width.
+ *
+ * Usage: SpatialIndexBenchmark [queriesPerWidth]
+ */
+public final class SpatialIndexBenchmark {
+    private static final int[] WIDTHS = { 8_000, 80_000, 800_000, 8_000_000 };
+    // animals plus food added per CHUNK_WIDTH of level, half of each
+    private static final int ENTITIES_PER_CHUNK = 16;
+
+    private SpatialIndexBenchmark() { }
+
+    public static void main(String[] args) {
+        int queries = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        System.out.printf("%10s %8s %8s %12s %12s %12s %12s %12s %12s%n", "width", "entries", "entities",
+                "hole ns", "wall ns", "near ns", "holeScan ns", "wallScan ns", "nearScan ns");
+        for (int width : WIDTHS) {
+            LevelModel level = new LevelModel(GameSettings.Difficulty.DIFFICILE, width);
+            SplittableRandom rnd = new SplittableRandom(42);
+            populate(level, width, rnd);
+            double[] xs = new double[queries];
+            for (int i = 0; i < queries; i++) xs[i] = rnd.nextDouble(0, width);
+
+            // warm up both code paths before timing
+            for (int rep = 0; rep < 3; rep++) {
+                holes(level, xs);
+                walls(level, xs);
+                nearby(level, xs);
+                holeScan(level, xs, Math.min(queries, 2_000));
+                wallScan(level, xs, Math.min(queries, 2_000));
+                nearbyScan(level, xs, Math.min(queries, 2_000));
+            }
+            int scanQueries = Math.max(100, queries / (width / 8_000));
+            System.out.printf("%10d %8d %8d %12.1f %12.1f %12.1f %12.1f %12.1f %12.1f%n", width,
+                    level.obstacles.size(), level.entities.size(),
+                    holes(level, xs), walls(level, xs), nearby(level, xs),
+                    holeScan(level, xs, Math.min(queries, scanQueries)),
+                    wallScan(level, xs, Math.min(queries, scanQueries)),
+                    nearbyScan(level, xs, Math.min(queries, scanQueries)));
+        }
+    }
+
+    // spread animals and food over every chunk of the level
+    private static void populate(LevelModel level, int width, SplittableRandom rnd) {
+        double groundY = level.getGroundY();
+        for (double chunk = 0; chunk < width; chunk += LevelModel.CHUNK_WIDTH) {
+            double end = Math.min(width, chunk + LevelModel.CHUNK_WIDTH);
+            for (int i = 0; i < ENTITIES_PER_CHUNK / 2; i++) {
+                level.addAnimal(rnd.nextDouble(chunk, end), rnd.nextInt(LevelModel.ANIMAL_VARIANTS));
+                level.spawnFood(rnd.nextDouble(chunk, end), groundY - 30 - rnd.nextDouble(0, 100),
+                        rnd.nextInt(LevelModel.FOOD_VARIANTS), LevelModel.FOOD_VALUE);
+            }
+        }
+    }
+
+    private static double holes(LevelModel level, double[] xs) {
+        long start = System.nanoTime();
+        int hits = 0;
+        for (double x : xs) {
+            if (level.isHoleAt(x)) hits++;
+        }
+        return perQuery(start, xs.length, hits);
+    }
+
+    private static double walls(LevelModel level, double[] xs) {
+        PlayerModel p = new PlayerModel(0, level.getGroundY() - PlayerModel.DEFAULT_HEIGHT);
+        long start = System.nanoTime();
+        for (double x : xs) {
+            p.x = x;
+            p.vx = p.speed;
+            level.handleWallCollisions(p);
+        }
+        return perQuery(start, xs.length, (int) p.x);
+    }
+
+    private static double nearby(LevelModel level, double[] xs) {
+        IntList pickups = new IntList();
+        IntList hazards = new IntList();
+        long start = System.nanoTime();
+        int found = 0;
+        for (double x : xs) {
+            pickups.clear();
+            hazards.clear();
+            found += level.queryPickups(x, x + 84, pickups);
+            found += level.queryHazards(x, x + 84, hazards);
+        }
+        return perQuery(start, xs.length, found);
+    }
+
+    // queryPickups and queryHazards as one pass over every entity
+    private static double nearbyScan(LevelModel level, double[] xs, int count) {
+        EntityStore e = level.entities;
+        long start = System.nanoTime();
+        int found = 0;
+        for (int q = 0; q < count; q++) {
+            double minX = xs[q];
+            double maxX = minX + 84;
+            for (int i = 0; i < e.size(); i++) {
+                if (e.x[i] <= maxX && e.x[i] + e.w[i] >= minX
+                        && (e.flags[i] & (EntityStore.PICKUP | EntityStore.HAZARD)) != 0) found++;
+            }
+        }
+        return perQuery(start, count, found);
+    }
+
+    // the pre-index implementation of Level.isHoleAt
+    private static double holeScan(LevelModel level, double[] xs, int count) {
+        long start = System.nanoTime();
+        int hits = 0;
+        for (int q = 0; q < count; q++) {
+            double x = xs[q];
+            for (ObstacleModel o : level.obstacles) {
+                if (o.type == ObstacleModel.Type.HOLE && x >= o.x && x <= o.x + o.w) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return perQuery(start, count, hits);
+    }
+
+    // the pre-index wall loop of Level.handleWallCollisions (overlap test only)
+    private static double wallScan(LevelModel level, double[] xs, int count) {
+        long start = System.nanoTime();
+        int hits = 0;
+        for (int q = 0; q < count; q++) {
+            double left = xs[q];
+            double right = left + 84;
+            for (ObstacleModel o : level.obstacles) {
+                if (o.type != ObstacleModel.Type.WALL) continue;
+                if (right > o.x && left < o.x + o.w) hits++;
+            }
+        }
+        return perQuery(start, count, hits);
+    }
+
+    private static double perQuery(long startNs, int count, int sink) {
+        long elapsed = System.nanoTime() - startNs;
+        // fold the result into the timing so the JIT cannot drop the loop
+        if (sink == Integer.MIN_VALUE) System.out.print("");
+        return (double) elapsed / count;
+    }
+}
@@ -0,0 +1,64 @@
+package com.jumpiquest.sim;
+
+/**
+ * Swept AABB tests, so a step can move a box further than its own size
+ * without passing through what lies between its start and end positions.
+ *
+ * Discrete overlap tests at the end of each step are exact enough while
+ * nothing moves more than half the thinner box per step (at 120 steps/s the
+ * player moves 2 px, the thinnest wall is 8 px wide); {@link #isFast} tells
+ * when a step moved far enough for the sweep to be needed.
+ */
+public final class Sweep {
+    /** Returned by {@link #timeOfImpact} when the boxes do not meet during the step. */
+    public static final double NONE = -1;
+
+    private Sweep() { }
+
+    /**
+     * Whether moving by d per step can jump over a box when only end
+     * positions are tested: d is more than half the thinner of the extents.
+     */
+    public static boolean isFast(double d, double extentA, double extentB) {
+        return Math.abs(d) * 2 > Math.min(extentA, extentB);
+    }
+
+    /**
+     * Time of impact in [0, 1] of box A, moving by (dx, dy) over the step,
+     * against the static box B: the fraction of the step after which they
+     * first overlap. Returns 0 if they already overlap at the start and
+     * {@link #NONE} if they never meet. Boxes that only touch do not meet.
+     * For two moving boxes pass A's displacement minus B's.
+     */
+    public static double timeOfImpact(double ax, double ay, double aw, double ah, double dx, double dy,
+                                      double bx, double by, double bw, double bh) {
+        double entryX, exitX, entryY, exitY;
+        if (dx > 0) {
+            entryX = (bx - (ax + aw)) / dx;
+            exitX = (bx + bw - ax) / dx;
+        } else if (dx < 0) {
+            entryX = (bx + bw - ax) / dx;
+            exitX = (bx - (ax + aw)) / dx;
+        } else {
+            // no horizontal motion: the X extents overlap for the whole step or never
+            if (ax + aw <= bx || ax >= bx + bw) return NONE;
+            entryX = Double.NEGATIVE_INFINITY;
+            exitX = Double.POSITIVE_INFINITY;
+        }
+        if (dy > 0) {
+            entryY = (by - (ay + ah)) / dy;
+            exitY = (by + bh - ay) / dy;
+        } else if (dy < 0) {
+            entryY = (by + bh - ay) / dy;
+            exitY = (by - (ay + ah)) / dy;
+        } else {
+            if (ay + ah <= by || ay >= by + bh) return NONE;
+            entryY = Double.NEGATIVE_INFINITY;
+            exitY = Double.POSITIVE_INFINITY;
+        }
+        double entry = Math.max(entryX, entryY);
+        double exit = Math.min(exitX, exitY);
+        if (entry >= exit || entry > 1 || exit <= 0) return NONE;
+        return Math.max(0, entry);
+    }
+}
@@ -0,0 +1,134 @@
+package com.jumpiquest.sim;
+
+import java.util.Arrays;
+
+/**
+ * Uniform X buckets over the entity indexes of an {@link EntityStore}, so
+ * that range queries only read the entities near the range. Entity i is
+ * listed in the bucket holding its left edge; buckets are laid out one after
+ * the other in a single int array (a counting sort by bucket, index order
+ * within a bucket), so the buckets of a range are one contiguous span.
+ *
+ * Rebuilding every step would cost more than the scans it saves, so the
+ * buckets are kept while entities drift: MovementSystem reports how far any
+ * entity may have moved since the last rebuild and which entities it
+ * teleported (wrap respawns, kept in a short stray list that every query
+ * also reads). Once the drift reaches half a bucket or the stray list fills
+ * up, and after entities are added or removed, the store rebuilds. Arrays
+ * are reused between rebuilds.
+ *
+ * Queries widen their range by the drift, and by the widest entity so
+ * entities whose left edge lies in an earlier bucket are still found; a stray
+ * can show up twice. Callers run their exact test on the candidates.
+ */
+public final class XBuckets {
+    public static final double BUCKET_WIDTH = 256.0;
+    private static final int MAX_STRAYS = 64;
+
+    // bucket b (counted from firstBucket) holds items[start[b] .. start[b + 1])
+    private int[] start = new int[2];
+    private int[] items = new int[16];
+    // bucket of entity i, relative to world X 0
+    private int[] bucketOf = new int[16];
+    private int firstBucket = 0;
+    private int buckets = 0;
+    // how far any entity may have moved since the rebuild, and the entities
+    // teleported since then
+    private double drift = 0;
+    private final IntList strays = new IntList(MAX_STRAYS);
+
+    /**
+     * Size the arrays for capacity entities spread over spanX pixels.
+     */
+    void reserve(int capacity, double spanX) {
+        if (bucketOf.length < capacity) {
+            bucketOf = new int[capacity];
+            items = new int[capacity];
+        }
+        // a span can start and end part-way into a bucket
+        int spanBuckets = (int) Math.ceil(spanX / BUCKET_WIDTH) + 2;
+        if (start.length < spanBuckets + 1) start = new int[spanBuckets + 1];
+    }
+
+    /**
+     * Re-bucket every entity of e.
+     */
+    void rebuild(EntityStore e) {
+        int n = e.size();
+        // sized like the store's columns, so they only grow when the store does
+        if (bucketOf.length < e.x.length) {
+            bucketOf = new int[e.x.length];
+            items = new int[e.x.length];
+        }
+        drift = 0;
+        strays.clear();
+        if (n == 0) {
+            buckets = 0;
+            return;
+        }
+        double[] x = e.x;
+        int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int b = bucket(x[i]);
+            bucketOf[i] = b;
+            min = Math.min(min, b);
+            max = Math.max(max, b);
+        }
+        firstBucket = min;
+        buckets = max - min + 1;
+        if (start.length < buckets + 1) start = new int[Math.max(buckets + 1, start.length * 2)];
+        Arrays.fill(start, 0, buckets + 1, 0);
+        for (int i = 0; i < n; i++) start[bucketOf[i] - min + 1]++;
+        for (int b = 0; b < buckets; b++) start[b + 1] += start[b];
+        // scatter in index order; start[b] ends up at the end of bucket b...
+        for (int i = 0; i < n; i++) items[start[bucketOf[i] - min]++] = i;
+        // ...so shift it back to where bucket b begins
+        System.arraycopy(start, 0, start, 1, buckets);
+        start[0] = 0;
+    }
+
+    /**
+     * Record that every entity moved at most distance since the last call and
+     * the entities in teleported were moved anywhere.
+     * @return false if the buckets need a rebuild instead
+     */
+    boolean drift(double distance, IntList teleported) {
+        if (strays.size() + teleported.size() > MAX_STRAYS) return false;
+        drift += distance;
+        if (drift > BUCKET_WIDTH / 2) return false;
+        for (int k = 0; k < teleported.size(); k++) strays.add(teleported.get(k));
+        return true;
+    }
+
+    private static int bucket(double x) {
+        return (int) Math.floor(x / BUCKET_WIDTH);
+    }
+
+    /**
+     * First position in {@link #items()} of the entities whose left edge may
+     * lie in [minX, maxX].
+     */
+    int from(double minX) {
+        int b = Math.max(0, Math.min(buckets, bucket(minX - drift) - firstBucket));
+        return start[b];
+    }
+
+    /**
+     * End position (exclusive) in {@link #items()} of the entities whose left
+     * edge may lie in [minX, maxX].
+     */
+    int to(double maxX) {
+        int b = Math.max(0, Math.min(buckets, bucket(maxX + drift) - firstBucket + 1));
+        return start[b];
+    }
+
+    /** Entity indexes, bucket by bucket. */
+    int[] items() {
+        return items;
+    }
+
+    /** Entities teleported since the rebuild, which may be in any bucket. */
+    IntList strays() {
+        return strays;
+    }
+}
@@ -0,0 +1,27 @@
+package com.jumpiquest.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Decoding of one image by the asset registry.
+ */
+@Name("jumpiquest.AssetDecode")
+@Label("Asset Decode")
+@Category({ "Jumpio Quest", "Assets" })
+@StackTrace(false)
+public class AssetDecodeEvent extends Event {
+    @Label("Key")
+    public String key;
+
+    @Label("Decoded Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Found")
+    public boolean found;
+}
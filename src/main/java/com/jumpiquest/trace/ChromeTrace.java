@@ -0,0 +1,171 @@
+package com.jumpiquest.trace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedObject;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Converts a JFR recording into Chrome trace JSON (chrome://tracing,
+ * ui.perfetto.dev), so game frames and ticks line up on one timeline with
+ * garbage collections, file and socket I/O and lock contention.
+ *
+ * Every jumpiquest.* event becomes a slice on its thread; GC pauses go on
+ * a separate "GC" track; heap use and CPU load become counter tracks.
+ *
+ * Record a run with: --trace=run.jfr (see Main) or
+ *   java -XX:StartFlightRecording=filename=run.jfr,settings=profile ...
+ *
+ * Usage: ChromeTrace recording.jfr [out.json]
+ */
+public final class ChromeTrace {
+    private static final String GAME_PREFIX = "jumpiquest.";
+    // JDK events with a duration that explain stalls
+    private static final Set<String> JDK_SLICES = Set.of(
+            "jdk.FileRead", "jdk.FileWrite", "jdk.SocketRead", "jdk.SocketWrite",
+            "jdk.JavaMonitorEnter", "jdk.SafepointBegin", "jdk.Compilation");
+    private static final Set<String> GC_SLICES = Set.of("jdk.GarbageCollection", "jdk.GCPhasePause");
+    // fields every event has; shown by the viewer itself
+    private static final Set<String> IMPLICIT_FIELDS = Set.of("startTime", "duration", "eventThread", "stackTrace");
+    private static final long GC_TID = 0;
+
+    private ChromeTrace() { }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: ChromeTrace recording.jfr [out.json]");
+            return;
+        }
+        Path in = Paths.get(args[0]);
+        Path out = args.length > 1 ? Paths.get(args[1])
+                : Paths.get(in.toString().replaceFirst("\\.jfr$", "") + ".json");
+        int written = convert(in, out);
+        System.out.println("Wrote " + written + " trace events to " + out);
+    }
+
+    /**
+     * Convert recording in to trace JSON at out; returns the number of
+     * trace events written.
+     */
+    public static int convert(Path in, Path out) throws IOException {
+        // stream the recording and keep only the events we draw: a profiling
+        // recording is mostly execution samples and allocation events
+        List<RecordedEvent> events = new ArrayList<>();
+        try (RecordingFile recording = new RecordingFile(in)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent e = recording.readEvent();
+                if (isDrawn(e.getEventType().getName())) events.add(e);
+            }
+        }
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        Instant origin = events.isEmpty() ? Instant.EPOCH : events.get(0).getStartTime();
+
+        Map<Long, String> threads = new TreeMap<>();
+        threads.put(GC_TID, "GC");
+        int count = 0;
+        try (Writer w = new BufferedWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            w.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            for (RecordedEvent e : events) {
+                String type = e.getEventType().getName();
+                double ts = micros(origin, e.getStartTime());
+                if (type.equals("jdk.GCHeapSummary")) {
+                    if (count++ > 0) w.write(",\n");
+                    w.write(String.format(Locale.ROOT, "{\"name\":\"heap\",\"ph\":\"C\",\"pid\":1,\"ts\":%.3f,"
+                            + "\"args\":{\"used MB\":%.1f}}", ts, e.getLong("heapUsed") / 1048576.0));
+                    continue;
+                }
+                if (type.equals("jdk.CPULoad")) {
+                    if (count++ > 0) w.write(",\n");
+                    w.write(String.format(Locale.ROOT, "{\"name\":\"cpu\",\"ph\":\"C\",\"pid\":1,\"ts\":%.3f,"
+                            + "\"args\":{\"jvm %%\":%.1f,\"machine %%\":%.1f}}", ts,
+                            100 * (e.getFloat("jvmUser") + e.getFloat("jvmSystem")), 100 * e.getFloat("machineTotal")));
+                    continue;
+                }
+                long tid = GC_TID;
+                if (!GC_SLICES.contains(type)) {
+                    RecordedThread t = e.getThread();
+                    if (t != null) {
+                        tid = t.getJavaThreadId() > 0 ? t.getJavaThreadId() : t.getOSThreadId() + (1L << 32);
+                        threads.putIfAbsent(tid, t.getJavaName() != null ? t.getJavaName() : t.getOSName());
+                    }
+                }
+                if (count++ > 0) w.write(",\n");
+                w.write(String.format(Locale.ROOT,
+                        "{\"name\":%s,\"cat\":%s,\"ph\":\"X\",\"pid\":1,\"tid\":%d,\"ts\":%.3f,\"dur\":%.3f,\"args\":",
+                        quote(e.getEventType().getLabel() != null ? e.getEventType().getLabel() : type),
+                        quote(type.startsWith(GAME_PREFIX) ? "game" : type.startsWith("jdk.G") ? "gc" : "jdk"),
+                        tid, ts, e.getDuration().toNanos() / 1e3));
+                writeArgs(w, e);
+                w.write("}");
+            }
+            for (Map.Entry<Long, String> t : threads.entrySet()) {
+                if (count++ > 0) w.write(",\n");
+                w.write(String.format(Locale.ROOT,
+                        "{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":%d,\"args\":{\"name\":%s}}",
+                        t.getKey(), quote(t.getValue())));
+            }
+            w.write("\n]}\n");
+        }
+        return count;
+    }
+
+    private static boolean isDrawn(String type) {
+        return type.startsWith(GAME_PREFIX) || JDK_SLICES.contains(type) || GC_SLICES.contains(type)
+                || type.equals("jdk.GCHeapSummary") || type.equals("jdk.CPULoad");
+    }
+
+    private static double micros(Instant origin, Instant t) {
+        return (t.getEpochSecond() - origin.getEpochSecond()) * 1e6 + (t.getNano() - origin.getNano()) / 1e3;
+    }
+
+    private static void writeArgs(Writer w, RecordedObject e) throws IOException {
+        w.write("{");
+        boolean first = true;
+        for (ValueDescriptor field : e.getFields()) {
+            if (IMPLICIT_FIELDS.contains(field.getName())) continue;
+            Object value = e.getValue(field.getName());
+            if (value == null) continue;
+            if (!first) w.write(",");
+            first = false;
+            w.write(quote(field.getName()));
+            w.write(":");
+            boolean finite = !(value instanceof Double && !Double.isFinite((Double) value))
+                    && !(value instanceof Float && !Float.isFinite((Float) value));
+            if ((value instanceof Number && finite) || value instanceof Boolean) {
+                w.write(value.toString());
+            } else {
+                w.write(quote(value.toString()));
+            }
+        }
+        w.write("}");
+    }
+
+    private static String quote(String s) {
+        StringBuilder b = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') b.append('\\').append(c);
+            else if (c == '\n') b.append("\\n");
+            else if (c < 0x20) b.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            else b.append(c);
+        }
+        return b.append('"').toString();
+    }
+}
@@ -0,0 +1,27 @@
+package com.jumpiquest.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One rendered frame (FX thread): view update and drawing of a snapshot.
+ */
+@Name("jumpiquest.Frame")
+@Label("Render Frame")
+@Category({ "Jumpio Quest", "Engine" })
+@Description("View update and drawing of one frame")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Simulation Tick")
+    public long tick;
+
+    @Label("Drawn")
+    public int drawn;
+
+    @Label("Culled")
+    public int culled;
+}
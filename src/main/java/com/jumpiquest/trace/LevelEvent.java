@@ -0,0 +1,31 @@
+package com.jumpiquest.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Creation of a game's level: generated, read from the level cache or
+ * loaded from a level file.
+ */
+@Name("jumpiquest.Level")
+@Label("Level Generation")
+@Category({ "Jumpio Quest", "Level" })
+@Description("Creation of a level model for a new game")
+public class LevelEvent extends Event {
+    @Label("Difficulty")
+    public String difficulty;
+
+    @Label("Seed")
+    public long seed;
+
+    @Label("Source")
+    @Description("endless, cache or file")
+    public String source;
+
+    @Label("Cached")
+    @Description("The level was already in the level cache")
+    public boolean cached;
+}
@@ -0,0 +1,19 @@
+package com.jumpiquest.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One score write to the score database (DB writer thread).
+ */
+@Name("jumpiquest.ScoreWrite")
+@Label("Score DB Write")
+@Category({ "Jumpio Quest", "Storage" })
+@StackTrace(false)
+public class ScoreWriteEvent extends Event {
+    @Label("Score")
+    public int score;
+}
@@ -0,0 +1,19 @@
+package com.jumpiquest.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Start of a sound effect: creating its player and starting playback.
+ */
+@Name("jumpiquest.Sound")
+@Label("SFX Playback")
+@Category({ "Jumpio Quest", "Sound" })
+@StackTrace(false)
+public class SoundEvent extends Event {
+    @Label("Sound")
+    public String sound;
+}
@@ -0,0 +1,28 @@
+package com.jumpiquest.trace;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One simulation step of the engine (simulation thread): input, rules and
+ * snapshot publication.
+ */
+@Name("jumpiquest.Tick")
+@Label("Engine Tick")
+@Category({ "Jumpio Quest", "Engine" })
+@Description("One fixed simulation step")
+@StackTrace(false)
+public class TickEvent extends Event {
+    @Label("Tick")
+    public long tick;
+
+    @Label("Input Bits")
+    public int input;
+
+    @Label("Entities")
+    public int entities;
+}
@@ -0,0 +1,246 @@
+package com.jumpiquest.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.jumpiquest.trace.AssetDecodeEvent;
+
+import javafx.scene.image.Image;
+
+/**
+ * Central image registry. Each file is decoded once and the same
+ * {@link Image} instance is handed out to every caller that asks for its key.
+ * Keys are paths relative to {@code res/} (e.g. "levels/tree.png").
+ *
+ * {@link #preloadAll()} decodes every game image in parallel at startup so
+ * that building a level or opening a screen never decodes images itself.
+ *
+ * Sprites packed at build time by {@link AtlasPacker} are served by
+ * {@link #sprite(String)} as regions of a shared atlas page, so drawing a
+ * level switches between a few textures instead of one per sprite file.
+ */
+public final class Assets {
+    // Every image the game draws; preloaded at startup
+    public static final String[] ALL_IMAGES = {
+        "sprite/sprite1.png", "sprite/sprite2.png", "sprite/sprite3.png",
+        "sprite/sprite4.png", "sprite/sprite5.png", "sprite/sprite6.png",
+        "foodItem/carrot.png", "foodItem/strawberry.png", "foodItem/mushroom.png",
+        "foodItem/apple.png", "foodItem/salade.png", "foodItem/tomato.png",
+        "foodItem/meat.png", "foodItem/banana.png", "foodItem/cheese.png",
+        "levels/tree.png", "levels/rock.png", "levels/wood.png",
+        "MobileObstacles/sheep.gif", "MobileObstacles/chicken.png", "MobileObstacles/cow.gif",
+        "house.png", "landscape.jpg", "redheart.png", "emptyheart.png"
+    };
+
+    /**
+     * A decoded image and what it cost. image is null if the file was not found.
+     */
+    public static final class Entry {
+        public final String key;
+        public final Image image;
+        public final long decodeNanos;
+
+        Entry(String key, Image image, long decodeNanos) {
+            this.key = key;
+            this.image = image;
+            this.decodeNanos = decodeNanos;
+        }
+
+        /** Bytes held by the decoded pixels (32-bit ARGB). */
+        public long bytes() {
+            if (image == null) return 0;
+            return (long) image.getWidth() * (long) image.getHeight() * 4L;
+        }
+    }
+
+    // atlas pages and index written by AtlasPacker into target/classes/atlas
+    private static final String ATLAS_DIR = "atlas/";
+
+    /** Where a packed sprite lives in the atlas. */
+    private static final class AtlasRegion {
+        final int page;
+        final double x, y, w, h;
+
+        AtlasRegion(int page, double x, double y, double w, double h) {
+            this.page = page;
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+        }
+    }
+
+    private static final Map<String, AtlasRegion> ATLAS = loadAtlasIndex();
+    private static final Map<String, Sprite> SPRITES = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<Entry>> CACHE = new ConcurrentHashMap<>();
+    private static final ExecutorService DECODERS = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                Thread t = new Thread(r, "asset-decoder");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private Assets() { }
+
+    /**
+     * Start decoding every game image in parallel. Returns immediately; the
+     * future completes when all images are decoded.
+     */
+    public static CompletableFuture<Void> preloadAll() {
+        CompletableFuture<?>[] all = new CompletableFuture<?>[ALL_IMAGES.length];
+        for (int i = 0; i < ALL_IMAGES.length; i++) {
+            // packed sprites only need their atlas page
+            AtlasRegion region = packedRegion(ALL_IMAGES[i]);
+            all[i] = region != null ? load(pageKey(region.page)) : load(ALL_IMAGES[i]);
+        }
+        return CompletableFuture.allOf(all);
+    }
+
+    /**
+     * Shared image for a key, decoding it now if it was not preloaded.
+     * Returns null if the file does not exist or cannot be decoded.
+     */
+    public static Image image(String key) {
+        return load(key).join().image;
+    }
+
+    /**
+     * Shared sprite for a key: a region of an atlas page if the sprite was
+     * packed at build time, otherwise the whole standalone image.
+     * Returns null if the image cannot be found.
+     */
+    public static Sprite sprite(String key) {
+        Sprite cached = SPRITES.get(key);
+        if (cached != null) return cached;
+        Sprite sprite = null;
+        AtlasRegion region = packedRegion(key);
+        if (region != null) {
+            Image page = image(pageKey(region.page));
+            if (page != null) sprite = new Sprite(key, page, region.x, region.y, region.w, region.h);
+        }
+        if (sprite == null) {
+            Image img = image(key);
+            if (img == null) return null;
+            sprite = Sprite.of(key, img);
+        }
+        SPRITES.putIfAbsent(key, sprite);
+        return SPRITES.get(key);
+    }
+
+    // An assets/img override wins over the packed copy
+    private static AtlasRegion packedRegion(String key) {
+        AtlasRegion region = ATLAS.get(key);
+        if (region == null) return null;
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        return new File("assets/img/" + name).exists() ? null : region;
+    }
+
+    private static String pageKey(int page) {
+        return ATLAS_DIR + AtlasPacker.pageName(page);
+    }
+
+    private static Map<String, AtlasRegion> loadAtlasIndex() {
+        Map<String, AtlasRegion> index = new HashMap<>();
+        try (InputStream in = Assets.class.getResourceAsStream("/" + ATLAS_DIR + AtlasPacker.INDEX_NAME)) {
+            if (in == null) {
+                // not packed (e.g. running from sources): use standalone images
+                System.out.println("No sprite atlas found, using standalone images");
+                return index;
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String[] f = line.split(" ");
+                index.put(f[0], new AtlasRegion(Integer.parseInt(f[1]),
+                        Double.parseDouble(f[2]), Double.parseDouble(f[3]),
+                        Double.parseDouble(f[4]), Double.parseDouble(f[5])));
+            }
+        } catch (Exception e) {
+            System.out.println("Could not read sprite atlas index: " + e.getMessage());
+            index.clear();
+        }
+        return index;
+    }
+
+    private static CompletableFuture<Entry> load(String key) {
+        return CACHE.computeIfAbsent(key, k -> CompletableFuture.supplyAsync(() -> decode(k), DECODERS));
+    }
+
+    private static Entry decode(String key) {
+        AssetDecodeEvent event = new AssetDecodeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Image img = null;
+        String name = key.substring(key.lastIndexOf('/') + 1);
+        try {
+            // lookup order: assets/img override, res/, then classpath (atlas pages live there)
+            File override = new File("assets/img/" + name);
+            File res = new File("res/" + key);
+            if (override.exists()) {
+                img = new Image(override.toURI().toString());
+            } else if (res.exists()) {
+                img = new Image(res.toURI().toString());
+            } else {
+                InputStream in = Assets.class.getResourceAsStream("/" + key);
+                if (in == null) in = Assets.class.getResourceAsStream("/" + name);
+                if (in != null) {
+                    try (InputStream stream = in) {
+                        img = new Image(stream);
+                    }
+                }
+            }
+            if (img == null) {
+                System.out.println("Image not found: " + key);
+            } else if (img.isError()) {
+                System.out.println("Could not decode " + key + ": " + img.getException());
+                img = null;
+            }
+        } catch (Exception e) {
+            System.out.println("Could not load image " + key + ": " + e.getMessage());
+            img = null;
+        }
+        Entry entry = new Entry(key, img, System.nanoTime() - start);
+        event.key = key;
+        event.bytes = entry.bytes();
+        event.found = img != null;
+        event.commit();
+        return entry;
+    }
+
+    /**
+     * Entries decoded so far, in key order.
+     */
+    public static List<Entry> entries() {
+        List<Entry> out = new ArrayList<>();
+        for (CompletableFuture<Entry> f : CACHE.values()) {
+            if (f.isDone() && !f.isCompletedExceptionally()) out.add(f.join());
+        }
+        out.sort((a, b) -> a.key.compareTo(b.key));
+        return out;
+    }
+
+    /**
+     * Print decode time and bytes held for every decoded image.
+     */
+    public static void printReport() {
+        long totalNanos = 0, totalBytes = 0;
+        for (Entry e : entries()) {
+            System.out.printf("  %-28s %7.1f ms %8d KB%n", e.key, e.decodeNanos / 1e6, e.bytes() / 1024);
+            totalNanos += e.decodeNanos;
+            totalBytes += e.bytes();
+        }
+        System.out.printf("  %-28s %7.1f ms %8d KB%n", "total", totalNanos / 1e6, totalBytes / 1024);
+    }
+}
@@ -0,0 +1,161 @@
+package com.jumpiquest.utils;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Build-time tool that packs the game's PNG sprites into a few atlas pages.
+ * Run by Maven in the process-classes phase (see pom.xml); writes
+ * {@code sprites-N.png} pages and a {@code sprites.atlas} index, one line
+ * per sprite: {@code key page x y width height}.
+ *
+ * GIFs are left out on purpose: they are animated and JavaFX only animates
+ * a GIF drawn from its own image.
+ *
+ * Usage: AtlasPacker [resDir] [outDir]
+ */
+public final class AtlasPacker {
+    // sprite folders under res/ that get packed
+    private static final String[] SPRITE_DIRS = { "sprite", "foodItem", "levels", "MobileObstacles" };
+    // keeps pages within the texture size every Prism pipeline supports
+    private static final int MAX_PAGE = 2048;
+    // transparent gap between regions so filtering never samples a neighbour
+    private static final int PADDING = 2;
+
+    public static final String INDEX_NAME = "sprites.atlas";
+
+    private static final class Region {
+        final String key;
+        final BufferedImage image;
+        int page, x, y;
+
+        Region(String key, BufferedImage image) {
+            this.key = key;
+            this.image = image;
+        }
+    }
+
+    private AtlasPacker() { }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        File resDir = new File(args.length > 0 ? args[0] : "res");
+        File outDir = new File(args.length > 1 ? args[1] : "target/classes/atlas");
+
+        List<File> inputs = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (String dir : SPRITE_DIRS) {
+            File[] files = new File(resDir, dir).listFiles((d, name) -> name.toLowerCase().endsWith(".png"));
+            if (files == null) continue;
+            Arrays.sort(files);
+            for (File f : files) {
+                inputs.add(f);
+                keys.add(dir + "/" + f.getName());
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.out.println("AtlasPacker: no sprites found under " + resDir.getAbsolutePath());
+            return;
+        }
+
+        File index = new File(outDir, INDEX_NAME);
+        if (isUpToDate(index, inputs)) {
+            System.out.println("AtlasPacker: " + index + " is up to date");
+            return;
+        }
+
+        List<Region> regions = new ArrayList<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            BufferedImage img = ImageIO.read(inputs.get(i));
+            if (img == null) {
+                System.out.println("AtlasPacker: cannot decode " + inputs.get(i));
+                continue;
+            }
+            regions.add(new Region(keys.get(i), img));
+        }
+
+        int pages = pack(regions);
+        outDir.mkdirs();
+        for (int p = 0; p < pages; p++) {
+            writePage(regions, p, new File(outDir, pageName(p)));
+        }
+        try (PrintWriter out = new PrintWriter(index, "UTF-8")) {
+            out.println("# generated by AtlasPacker: key page x y width height");
+            for (Region r : regions) {
+                out.println(r.key + " " + r.page + " " + r.x + " " + r.y + " "
+                        + r.image.getWidth() + " " + r.image.getHeight());
+            }
+        }
+        System.out.println("AtlasPacker: packed " + regions.size() + " sprites into " + pages + " page(s) in " + outDir);
+    }
+
+    public static String pageName(int page) {
+        return "sprites-" + page + ".png";
+    }
+
+    private static boolean isUpToDate(File index, List<File> inputs) {
+        if (!index.exists()) return false;
+        for (File f : inputs) {
+            if (f.lastModified() > index.lastModified()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Shelf packing: tallest sprites first, filling rows left to right and
+     * starting a new page when a row no longer fits. Returns the page count.
+     */
+    private static int pack(List<Region> regions) {
+        List<Region> order = new ArrayList<>(regions);
+        order.sort((a, b) -> Integer.compare(b.image.getHeight(), a.image.getHeight()));
+        int page = 0, x = 0, y = 0, rowH = 0;
+        for (Region r : order) {
+            int w = r.image.getWidth() + PADDING * 2;
+            int h = r.image.getHeight() + PADDING * 2;
+            if (x + w > MAX_PAGE) {
+                // next row
+                x = 0;
+                y += rowH;
+                rowH = 0;
+            }
+            if (y + h > MAX_PAGE) {
+                // next page
+                page++;
+                x = 0;
+                y = 0;
+                rowH = 0;
+            }
+            r.page = page;
+            r.x = x + PADDING;
+            r.y = y + PADDING;
+            x += w;
+            rowH = Math.max(rowH, h);
+        }
+        return page + 1;
+    }
+
+    private static void writePage(List<Region> regions, int page, File file) throws IOException {
+        // size the page to what was actually placed on it
+        int w = 1, h = 1;
+        for (Region r : regions) {
+            if (r.page != page) continue;
+            w = Math.max(w, r.x + r.image.getWidth() + PADDING);
+            h = Math.max(h, r.y + r.image.getHeight() + PADDING);
+        }
+        BufferedImage atlas = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        for (Region r : regions) {
+            if (r.page == page) g.drawImage(r.image, r.x, r.y, null);
+        }
+        g.dispose();
+        ImageIO.write(atlas, "png", file);
+    }
+}
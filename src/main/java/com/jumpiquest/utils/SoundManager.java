@@ -2,6 +2,8 @@ package com.jumpiquest.utils;
 
 import java.io.File;
 
+import com.jumpiquest.trace.SoundEvent;
+
 import javafx.scene.media.Media;
 import javafx.scene.media.MediaPlayer;
 
@@ -128,8 +130,10 @@ public final class SoundManager {
     }
 
     // Helper to play a one-shot sound. Creates a temporary MediaPlayer and disposes it when finished.
-    private static void playOnce(Media media, double volume) {
+    private static void playOnce(String name, Media media, double volume) {
         if (media == null) return;
+        SoundEvent event = new SoundEvent();
+        event.begin();
         try {
             MediaPlayer mp = new MediaPlayer(media);
             mp.setVolume(volume);
@@ -141,28 +145,30 @@ public final class SoundManager {
         } catch (Exception e) {
             System.out.println("Could not play SFX: " + e.getMessage());
         }
+        event.sound = name;
+        event.commit();
     }
 
     public static void playWin() {
         // stop background first to emphasize the win sound
         stopBackground();
-        playOnce(mediaWin, 0.5);
+        playOnce("win", mediaWin, 0.5);
     }
 
     public static void playGameOver() {
         stopBackground();
-        playOnce(mediaGameOver, 0.5);
+        playOnce("gameover", mediaGameOver, 0.5);
     }
 
     public static void playJump() {
-        playOnce(mediaJump, 0.45);
+        playOnce("jump", mediaJump, 0.45);
     }
 
     public static void playCoin() {
-        playOnce(mediaCoin, 0.45);
+        playOnce("coin", mediaCoin, 0.45);
     }
 
     public static void playCollision() {
-        playOnce(mediaCollision, 0.5);
+        playOnce("collision", mediaCollision, 0.5);
     }
 }
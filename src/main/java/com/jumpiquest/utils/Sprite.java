@@ -0,0 +1,41 @@
+package com.jumpiquest.utils;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+
+/**
+ * A rectangle of an image: either a region of a packed sprite atlas or a
+ * whole standalone image. Views draw through this so they do not need to
+ * know whether a sprite was packed.
+ */
+public final class Sprite {
+    public final String key;
+    public final Image image;
+    public final double x;
+    public final double y;
+    public final double width;
+    public final double height;
+
+    public Sprite(String key, Image image, double x, double y, double width, double height) {
+        this.key = key;
+        this.image = image;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * The whole of a standalone image.
+     */
+    public static Sprite of(String key, Image image) {
+        return new Sprite(key, image, 0, 0, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * Draw the sprite scaled into the destination rectangle.
+     */
+    public void draw(GraphicsContext gc, double dx, double dy, double dw, double dh) {
+        gc.drawImage(image, x, y, width, height, dx, dy, dw, dh);
+    }
+}
@@ -0,0 +1,150 @@
+package com.jumpiquest.utils;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Sprites resampled once to the exact size they are drawn at, so per-frame
+ * drawing is a 1:1 blit instead of scaling a full-resolution source.
+ *
+ * Resampled sprites are packed into shared pages, row by row as they are
+ * first asked for, and returned as regions of those pages: like the
+ * build-time atlas ({@link AtlasPacker}), a frame draws from a few textures
+ * instead of binding one per sprite and size.
+ *
+ * Sizes are in device pixels: display size times the render scale (the
+ * window's output scale on HiDPI screens). Changing the render scale drops
+ * the cache and its pages and bumps {@link #version()}, which views compare
+ * against to know when to fetch their sprite again. Used from the FX thread
+ * only.
+ */
+public final class SpriteCache {
+    // the handful of prescaled sizes the views use fit in one page
+    private static final int PAGE_SIZE = 1024;
+    // transparent gap between regions so filtering never samples a neighbour
+    private static final int PADDING = 2;
+
+    private static final Map<String, Sprite> CACHE = new HashMap<>();
+    private static final List<WritableImage> PAGES = new ArrayList<>();
+    // where the next region goes on the last page: current row and its height
+    private static int rowX = 0, rowY = 0, rowHeight = 0;
+    private static double renderScale = 1.0;
+    private static int version = 0;
+
+    private SpriteCache() { }
+
+    /**
+     * Set the device pixels per canvas pixel. Cheap to call every frame;
+     * only a real change clears the cache.
+     */
+    public static void setRenderScale(double scale) {
+        if (scale <= 0 || scale == renderScale) return;
+        renderScale = scale;
+        CACHE.clear();
+        PAGES.clear();
+        version++;
+    }
+
+    public static int version() {
+        return version;
+    }
+
+    /**
+     * The sprite resampled for drawing at w x h canvas pixels. Animated GIFs
+     * are returned unchanged (resampling would freeze them on one frame).
+     * Returns null if sprite is null.
+     */
+    public static Sprite scaled(Sprite sprite, double w, double h) {
+        if (sprite == null) return null;
+        if (sprite.key.endsWith(".gif")) return sprite;
+        int pw = Math.max(1, (int) Math.round(w * renderScale));
+        int ph = Math.max(1, (int) Math.round(h * renderScale));
+        String cacheKey = sprite.key + "@" + pw + "x" + ph;
+        Sprite cached = CACHE.get(cacheKey);
+        if (cached == null) {
+            int[] pixels = resample(sprite, pw, ph);
+            cached = pixels != null ? pack(cacheKey, pixels, pw, ph) : sprite;
+            CACHE.put(cacheKey, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Copy pw x ph premultiplied ARGB pixels into the next free spot of the
+     * last page (a new page if it is full) and return that region.
+     */
+    private static Sprite pack(String key, int[] pixels, int pw, int ph) {
+        PixelFormat<IntBuffer> format = PixelFormat.getIntArgbPreInstance();
+        if (pw > PAGE_SIZE || ph > PAGE_SIZE) {
+            // larger than a page: a standalone image
+            WritableImage image = new WritableImage(pw, ph);
+            image.getPixelWriter().setPixels(0, 0, pw, ph, format, pixels, 0, pw);
+            return Sprite.of(key, image);
+        }
+        if (!PAGES.isEmpty() && rowX + pw > PAGE_SIZE) {
+            // next row
+            rowX = 0;
+            rowY += rowHeight + PADDING;
+            rowHeight = 0;
+        }
+        if (PAGES.isEmpty() || rowY + ph > PAGE_SIZE) {
+            PAGES.add(new WritableImage(PAGE_SIZE, PAGE_SIZE));
+            rowX = 0;
+            rowY = 0;
+            rowHeight = 0;
+        }
+        WritableImage page = PAGES.get(PAGES.size() - 1);
+        page.getPixelWriter().setPixels(rowX, rowY, pw, ph, format, pixels, 0, pw);
+        Sprite region = new Sprite(key, page, rowX, rowY, pw, ph);
+        rowX += pw + PADDING;
+        rowHeight = Math.max(rowHeight, ph);
+        return region;
+    }
+
+    /**
+     * Box-filter downscale (plain sampling when enlarging) of the sprite's
+     * region, in premultiplied ARGB so transparent edges do not darken.
+     * Returns the pw x ph pixels, or null if the sprite cannot be read.
+     */
+    private static int[] resample(Sprite sprite, int pw, int ph) {
+        PixelReader reader = sprite.image.getPixelReader();
+        int sx0 = (int) sprite.x, sy0 = (int) sprite.y;
+        int sw = (int) sprite.width, sh = (int) sprite.height;
+        if (reader == null || sw <= 0 || sh <= 0) return null;
+
+        int[] src = new int[sw * sh];
+        reader.getPixels(sx0, sy0, sw, sh, PixelFormat.getIntArgbPreInstance(), src, 0, sw);
+        int[] dst = new int[pw * ph];
+        double fx = (double) sw / pw;
+        double fy = (double) sh / ph;
+        for (int y = 0; y < ph; y++) {
+            int y0 = (int) (y * fy);
+            int y1 = Math.max(y0 + 1, Math.min(sh, (int) Math.ceil((y + 1) * fy)));
+            for (int x = 0; x < pw; x++) {
+                int x0 = (int) (x * fx);
+                int x1 = Math.max(x0 + 1, Math.min(sw, (int) Math.ceil((x + 1) * fx)));
+                long a = 0, r = 0, g = 0, b = 0;
+                for (int yy = y0; yy < y1; yy++) {
+                    int row = yy * sw;
+                    for (int xx = x0; xx < x1; xx++) {
+                        int p = src[row + xx];
+                        a += p >>> 24;
+                        r += (p >> 16) & 0xff;
+                        g += (p >> 8) & 0xff;
+                        b += p & 0xff;
+                    }
+                }
+                int n = (y1 - y0) * (x1 - x0);
+                dst[y * pw + x] = (int) (a / n) << 24 | (int) (r / n) << 16 | (int) (g / n) << 8 | (int) (b / n);
+            }
+        }
+        return dst;
+    }
+}